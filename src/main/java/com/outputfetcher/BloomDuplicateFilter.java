@@ -0,0 +1,93 @@
+package com.outputfetcher;
+
+import java.util.Arrays;
+
+/**
+ * Duplicate filter backed by two Bloom filters.
+ *
+ * Each filter is sized from the memory budget and the target false positive
+ * rate p, at -ln(p) / ln(2)^2 bits per line (about 1.8 bytes at p = 0.001).
+ * Lines go into the current filter; once it holds as many lines as it was
+ * sized for, it becomes the previous filter and a cleared one takes its
+ * place, so memory stays fixed and the error rate never degrades past p per
+ * filter. A false positive hides a line that was never shown.
+ *
+ * The filters are allocated when the first line is checked and released by
+ * clear(), so a filter that is never used takes no memory.
+ */
+public class BloomDuplicateFilter implements DuplicateFilter {
+    private long[] current;
+    private long[] previous;
+    private final int words;
+    private final long bits;
+    private final int hashes;
+    private final long maxEntries;
+    private long size;
+
+    /**
+     * @param memoryBytes       Memory budget for both filters together
+     * @param falsePositiveRate Target false positive rate, between 0 and 1
+     */
+    public BloomDuplicateFilter(long memoryBytes, double falsePositiveRate) {
+        double p = Math.min(0.5, Math.max(1e-9, falsePositiveRate));
+        words = (int) Math.max(16, Math.min(memoryBytes / 16, Integer.MAX_VALUE - 8));
+        bits = words * 64L;
+
+        double bitsPerEntry = -Math.log(p) / (Math.log(2) * Math.log(2));
+        maxEntries = Math.max(1, (long) (bits / bitsPerEntry));
+        hashes = Math.max(1, (int) Math.round(bitsPerEntry * Math.log(2)));
+    }
+
+    @Override
+    public boolean isDuplicate(String content) {
+        long hash = HashDuplicateFilter.hash64(content);
+        // Double hashing: derive all probe positions from two halves of one hash
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        if (current == null) {
+            current = new long[words];
+            previous = new long[words];
+        }
+
+        if (mightContain(current, h1, h2)) {
+            return true;
+        }
+        boolean known = mightContain(previous, h1, h2);
+
+        if (size >= maxEntries) {
+            long[] recycled = previous;
+            previous = current;
+            Arrays.fill(recycled, 0);
+            current = recycled;
+            size = 0;
+        }
+        for (int i = 0; i < hashes; i++) {
+            long bit = index(h1, h2, i);
+            current[(int) (bit >>> 6)] |= 1L << bit;
+        }
+        size++;
+        return known;
+    }
+
+    @Override
+    public void clear() {
+        current = null;
+        previous = null;
+        size = 0;
+    }
+
+    private boolean mightContain(long[] filter, int h1, int h2) {
+        for (int i = 0; i < hashes; i++) {
+            long bit = index(h1, h2, i);
+            if ((filter[(int) (bit >>> 6)] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private long index(int h1, int h2, int i) {
+        long combined = (h1 + (long) i * h2) & Long.MAX_VALUE;
+        return combined % bits;
+    }
+}
@@ -39,8 +39,23 @@ public class Configuration {
         public Font font = new Font("Monospaced", Font.PLAIN, 12);
         public boolean wordWrap = false;
         public boolean filterDuplicates = false;
+        public boolean collapseRepeats = false;
         public boolean showTimestamp = true;
         public boolean autoConnect = false;
+        public SourceMode sourceMode = SourceMode.POLL;
+        public long pollMinInterval = 500;
+        public long pollMaxInterval = 30000;
+        public long pollBackgroundInterval = 10000;
+        public boolean drainRotated = false;
+        public int maxBatchLines = 5000;
+        public long partialLineFlushMs = 5000;
+        public int scrollbackLines = 100000;
+        public long scrollbackBytes = 64L * 1024 * 1024;
+        public boolean virtualView = false;
+        public DuplicateFilterStrategy dedupStrategy = DuplicateFilterStrategy.EXACT_LRU;
+        public long dedupMemoryKb = 16384;
+        public long dedupWindowSeconds = 300;
+        public double dedupFalsePositiveRate = 0.001;
 
         public int textColorRGB;
         public int backgroundColorRGB;
@@ -106,8 +121,24 @@ public class Configuration {
                 }
                 json.put("wordWrap", wordWrap);
                 json.put("filterDuplicates", filterDuplicates);
+                json.put("collapseRepeats", collapseRepeats);
                 json.put("showTimestamp", showTimestamp);
                 json.put("autoConnect", autoConnect);
+                json.put("sourceMode", sourceMode != null ? sourceMode.name() : SourceMode.POLL.name());
+                json.put("pollMinInterval", pollMinInterval);
+                json.put("pollMaxInterval", pollMaxInterval);
+                json.put("pollBackgroundInterval", pollBackgroundInterval);
+                json.put("drainRotated", drainRotated);
+                json.put("maxBatchLines", maxBatchLines);
+                json.put("partialLineFlushMs", partialLineFlushMs);
+                json.put("scrollbackLines", scrollbackLines);
+                json.put("scrollbackBytes", scrollbackBytes);
+                json.put("virtualView", virtualView);
+                json.put("dedupStrategy", dedupStrategy != null ? dedupStrategy.name()
+                        : DuplicateFilterStrategy.EXACT_LRU.name());
+                json.put("dedupMemoryKb", dedupMemoryKb);
+                json.put("dedupWindowSeconds", dedupWindowSeconds);
+                json.put("dedupFalsePositiveRate", dedupFalsePositiveRate);
             } catch (JSONException e) {
                 e.printStackTrace();
             }
@@ -132,8 +163,24 @@ public class Configuration {
 
             config.wordWrap = json.optBoolean("wordWrap", false);
             config.filterDuplicates = json.optBoolean("filterDuplicates", false);
+            config.collapseRepeats = json.optBoolean("collapseRepeats", false);
             config.showTimestamp = json.optBoolean("showTimestamp", true);
             config.autoConnect = json.optBoolean("autoConnect", false);
+            config.sourceMode = SourceMode.fromName(json.optString("sourceMode", SourceMode.POLL.name()));
+            config.pollMinInterval = json.optLong("pollMinInterval", 500);
+            config.pollMaxInterval = json.optLong("pollMaxInterval", 30000);
+            config.pollBackgroundInterval = json.optLong("pollBackgroundInterval", 10000);
+            config.drainRotated = json.optBoolean("drainRotated", false);
+            config.maxBatchLines = Math.max(1, json.optInt("maxBatchLines", 5000));
+            config.partialLineFlushMs = json.optLong("partialLineFlushMs", 5000);
+            config.scrollbackLines = Math.max(1000, json.optInt("scrollbackLines", 100000));
+            config.scrollbackBytes = Math.max(1024 * 1024, json.optLong("scrollbackBytes", 64L * 1024 * 1024));
+            config.virtualView = json.optBoolean("virtualView", false);
+            config.dedupStrategy = DuplicateFilterStrategy.fromName(
+                    json.optString("dedupStrategy", DuplicateFilterStrategy.EXACT_LRU.name()));
+            config.dedupMemoryKb = Math.max(16, json.optLong("dedupMemoryKb", 16384));
+            config.dedupWindowSeconds = Math.max(1, json.optLong("dedupWindowSeconds", 300));
+            config.dedupFalsePositiveRate = json.optDouble("dedupFalsePositiveRate", 0.001);
 
             return config;
         }
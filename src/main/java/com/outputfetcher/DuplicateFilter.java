@@ -0,0 +1,63 @@
+package com.outputfetcher;
+
+/**
+ * Remembers log lines that have been shown so repeats can be hidden.
+ *
+ * Implementations trade exactness for memory in different ways, but all of
+ * them stay within a fixed memory budget no matter how many distinct lines a
+ * long session produces. Lines that have been forgotten are shown again.
+ *
+ * Filters are not thread-safe. A tab's filter is used on the EDT, except
+ * while a fresh one is filled during a background re-render.
+ */
+public interface DuplicateFilter {
+    /**
+     * Records a line and reports whether it was seen before.
+     *
+     * @param content The line content without its timestamp
+     * @return true if the line is a repeat and should be hidden
+     */
+    boolean isDuplicate(String content);
+
+    /**
+     * Forgets every recorded line.
+     */
+    void clear();
+
+    /**
+     * Creates the filter configured for a tab.
+     *
+     * @param strategy          How lines are remembered
+     * @param memoryBytes       Memory budget for the remembered lines
+     * @param windowMs          How long a line is remembered by TIME_WINDOW
+     * @param falsePositiveRate Target false positive rate of BLOOM
+     * @return A new, empty filter
+     */
+    static DuplicateFilter create(DuplicateFilterStrategy strategy, long memoryBytes, long windowMs,
+            double falsePositiveRate) {
+        switch (strategy) {
+            case TIME_WINDOW:
+                return new TimeWindowDuplicateFilter(memoryBytes, windowMs);
+            case HASH_64:
+                return new HashDuplicateFilter(memoryBytes);
+            case BLOOM:
+                return new BloomDuplicateFilter(memoryBytes, falsePositiveRate);
+            case EXACT_LRU:
+            default:
+                return new LruDuplicateFilter(memoryBytes);
+        }
+    }
+
+    /**
+     * Estimates the heap taken by a remembered string, including its map
+     * entry. Assumes compact Latin-1 strings, with two bytes per character for
+     * anything else.
+     *
+     * @param content The remembered line
+     * @return The estimated size in bytes
+     */
+    static long estimateEntryBytes(String content) {
+        // Map entry and table slot (~48) + String header (~24) + byte[] header (~16)
+        return 88 + content.length() * 2L;
+    }
+}
@@ -0,0 +1,48 @@
+package com.outputfetcher;
+
+/**
+ * How a tab's duplicate filter remembers lines it has shown.
+ *
+ * - EXACT_LRU: keeps the lines themselves and forgets the least recently
+ * seen ones when the memory budget is reached; never hides a new line
+ * - TIME_WINDOW: keeps lines seen within the last window, bounded by the
+ * same memory budget; a line seen again after the window is shown again
+ * - HASH_64: keeps only 64-bit hashes in primitive long tables, about 16
+ * bytes per line, so it remembers far more lines than EXACT_LRU; collisions
+ * are practically impossible
+ * - BLOOM: keeps a Bloom filter, about 1.8 bytes per line at a 0.1% false
+ * positive rate; a small, configurable share of new lines is hidden
+ */
+public enum DuplicateFilterStrategy {
+    EXACT_LRU("Exact (LRU)"),
+    TIME_WINDOW("Time window"),
+    HASH_64("64-bit hashes"),
+    BLOOM("Bloom filter");
+
+    private final String label;
+
+    DuplicateFilterStrategy(String label) {
+        this.label = label;
+    }
+
+    /**
+     * Parses a persisted strategy name, falling back to EXACT_LRU for unknown
+     * values.
+     *
+     * @param name The name stored in the configuration file
+     * @return The matching strategy, or EXACT_LRU if none matches
+     */
+    public static DuplicateFilterStrategy fromName(String name) {
+        for (DuplicateFilterStrategy strategy : values()) {
+            if (strategy.name().equalsIgnoreCase(name)) {
+                return strategy;
+            }
+        }
+        return EXACT_LRU;
+    }
+
+    @Override
+    public String toString() {
+        return label;
+    }
+}
@@ -0,0 +1,128 @@
+package com.outputfetcher;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+/**
+ * Outcome of a single {@link LogSource#fetch} or {@link LogSource#fetchRange}
+ * call.
+ *
+ * Holds the remote file's state at the time of the read and the bytes
+ * appended since the requested offset. Each tab keeps one instance and
+ * passes it to every fetch, so the payload buffer is allocated once and only
+ * grows when a delta is larger than any seen before.
+ */
+public class FetchResult {
+    /** Number of leading bytes used to fingerprint the file's identity */
+    public static final int HEAD_BYTES = 64;
+
+    /** Whether the log file exists on the remote host */
+    public boolean exists;
+
+    /** Size of the file in bytes when it was read */
+    public long size;
+
+    /** Inode number of the file, or 0 if the source could not report it */
+    public long inode;
+
+    /** Modification time in seconds since the epoch, or 0 if not reported */
+    public long mtime;
+
+    /** The first {@link #headLength} bytes of the file, used to detect replacement */
+    public byte[] head = new byte[HEAD_BYTES];
+
+    /** Number of valid bytes in {@link #head}, at most HEAD_BYTES */
+    public int headLength;
+
+    /** File offset of the first payload byte */
+    public long offset;
+
+    /** Reusable payload buffer; only the first {@link #length} bytes are valid */
+    public byte[] data = new byte[8192];
+
+    /** Number of payload bytes read into {@link #data} */
+    public int length;
+
+    /**
+     * Resets the state before a new fetch while keeping the payload buffer.
+     */
+    public void clear() {
+        exists = false;
+        size = 0;
+        inode = 0;
+        mtime = 0;
+        headLength = 0;
+        offset = 0;
+        length = 0;
+    }
+
+    /**
+     * Checks whether this file's head agrees with a previously recorded one
+     * over the bytes both have. A file that has only grown always matches;
+     * a rotated or rewritten file almost never does.
+     *
+     * @param fingerprint    The head bytes recorded earlier
+     * @param fingerprintLen The number of valid bytes in the fingerprint
+     * @return true if the common prefix is identical
+     */
+    public boolean headMatches(byte[] fingerprint, int fingerprintLen) {
+        int n = Math.min(headLength, fingerprintLen);
+        return Arrays.mismatch(head, 0, n, fingerprint, 0, n) == -1;
+    }
+
+    /**
+     * Fills {@link #head} from a hex string such as the output of
+     * {@code od -An -tx1}.
+     *
+     * @param hex The hex digits, two per byte
+     * @throws IOException If the string is not valid hex
+     */
+    public void parseHead(String hex) throws IOException {
+        int n = Math.min(hex.length() / 2, HEAD_BYTES);
+        try {
+            for (int i = 0; i < n; i++) {
+                head[i] = (byte) Integer.parseInt(hex.substring(2 * i, 2 * i + 2), 16);
+            }
+        } catch (NumberFormatException e) {
+            throw new IOException("Malformed head fingerprint: " + hex, e);
+        }
+        headLength = n;
+    }
+
+    /**
+     * Fills {@link #head} from the start of a stream.
+     *
+     * @param in The stream positioned at offset 0 of the file
+     * @throws IOException If the stream fails
+     */
+    public void readHead(InputStream in) throws IOException {
+        int n;
+        while (headLength < HEAD_BYTES && (n = in.read(head, headLength, HEAD_BYTES - headLength)) != -1) {
+            headLength += n;
+        }
+    }
+
+    /**
+     * Reads up to {@code expected} payload bytes from a stream into the
+     * reusable buffer, growing it only when the payload does not fit.
+     *
+     * @param in       The stream positioned at the first payload byte
+     * @param expected The number of bytes the source announced
+     * @throws IOException If the stream fails or the payload is too large
+     */
+    public void readPayload(InputStream in, long expected) throws IOException {
+        if (expected > Integer.MAX_VALUE - 8) {
+            throw new IOException("Delta of " + expected + " bytes is too large to read at once");
+        }
+        int limit = (int) expected;
+        if (data.length < limit) {
+            data = Arrays.copyOf(data, limit);
+        }
+
+        int n;
+        while (length < limit && (n = in.read(data, length, limit - length)) != -1) {
+            length += n;
+        }
+    }
+}
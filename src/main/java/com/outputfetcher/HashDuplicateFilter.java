@@ -0,0 +1,112 @@
+package com.outputfetcher;
+
+import java.util.Arrays;
+
+/**
+ * Duplicate filter that keeps only 64-bit hashes of the lines, in two
+ * open-addressing tables of primitive longs.
+ *
+ * New hashes go into the current table. When it is half full it becomes the
+ * previous table and a fresh one takes its place, so the filter always
+ * remembers between one and two tables' worth of the most recent distinct
+ * lines. Each remembered line costs 16 bytes of table space and nothing on
+ * the heap besides.
+ *
+ * The tables are allocated when the first line is checked and released by
+ * clear(), so a filter that is never used takes no table space.
+ */
+public class HashDuplicateFilter implements DuplicateFilter {
+    /** Marks an empty slot; a line hashing to 0 is stored as 1 instead */
+    private static final long EMPTY = 0;
+
+    private long[] current;
+    private long[] previous;
+    private final int slots;
+    private final int maxEntries;
+    private int size;
+
+    /**
+     * @param memoryBytes Memory budget for both tables together
+     */
+    public HashDuplicateFilter(long memoryBytes) {
+        slots = Integer.highestOneBit((int) Math.max(1024, Math.min(memoryBytes / 16, 1 << 28)));
+        maxEntries = slots / 2;
+    }
+
+    @Override
+    public boolean isDuplicate(String content) {
+        long hash = hash64(content);
+        if (hash == EMPTY) {
+            hash = 1;
+        }
+        if (current == null) {
+            current = new long[slots];
+            previous = new long[slots];
+        }
+        if (contains(current, hash)) {
+            return true;
+        }
+        boolean known = contains(previous, hash);
+
+        if (size >= maxEntries) {
+            long[] recycled = previous;
+            previous = current;
+            Arrays.fill(recycled, EMPTY);
+            current = recycled;
+            size = 0;
+        }
+        // Re-insert known lines too, so frequent ones survive the next rotation
+        insert(current, hash);
+        size++;
+        return known;
+    }
+
+    @Override
+    public void clear() {
+        current = null;
+        previous = null;
+        size = 0;
+    }
+
+    private static boolean contains(long[] table, long hash) {
+        int mask = table.length - 1;
+        for (int i = (int) hash & mask;; i = (i + 1) & mask) {
+            if (table[i] == hash) {
+                return true;
+            }
+            if (table[i] == EMPTY) {
+                return false;
+            }
+        }
+    }
+
+    private static void insert(long[] table, long hash) {
+        int mask = table.length - 1;
+        int i = (int) hash & mask;
+        while (table[i] != EMPTY) {
+            i = (i + 1) & mask;
+        }
+        table[i] = hash;
+    }
+
+    /**
+     * 64-bit FNV-1a over the string's chars, finished with the MurmurHash3
+     * mixer so that all bits depend on every char.
+     *
+     * @param content The string to hash
+     * @return The 64-bit hash
+     */
+    static long hash64(String content) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < content.length(); i++) {
+            h ^= content.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
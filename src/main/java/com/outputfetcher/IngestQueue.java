@@ -0,0 +1,65 @@
+package com.outputfetcher;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lines received for a tab that are waiting to be shown.
+ *
+ * Fetch threads and stream callbacks add lines without touching Swing. The
+ * EDT drains the queue once per frame and appends a whole batch with a single
+ * document insert and caret update, so a burst of thousands of lines costs a
+ * handful of EDT events instead of one event per line.
+ *
+ * The queue also tracks how long its oldest line has been waiting, which is
+ * reported as the tab's UI lag.
+ */
+public class IngestQueue {
+    private final ConcurrentLinkedQueue<String> lines = new ConcurrentLinkedQueue<>();
+
+    /** System.nanoTime() when the oldest pending line was added, or 0 if empty */
+    private final AtomicLong pendingSince = new AtomicLong();
+
+    /**
+     * Adds a line. Safe to call from any thread.
+     *
+     * @param line The line without its trailing newline
+     */
+    public void add(String line) {
+        lines.add(line);
+        pendingSince.compareAndSet(0, System.nanoTime());
+    }
+
+    /**
+     * Moves up to {@code max} lines into {@code batch}, oldest first.
+     *
+     * @param batch The list to fill
+     * @param max   The maximum number of lines to move
+     * @return How long in milliseconds the oldest drained line had waited, or
+     *         0 if the queue was empty
+     */
+    public long drainTo(List<String> batch, int max) {
+        long since = pendingSince.getAndSet(0);
+        String line;
+        int n = 0;
+        while (n < max && (line = lines.poll()) != null) {
+            batch.add(line);
+            n++;
+        }
+        if (!lines.isEmpty()) {
+            // Lines left for the next frame count as pending from now on
+            pendingSince.compareAndSet(0, System.nanoTime());
+        }
+        return since == 0 || n == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - since);
+    }
+
+    /**
+     * Drops all pending lines, e.g. when the log is cleared.
+     */
+    public void clear() {
+        lines.clear();
+        pendingSince.set(0);
+    }
+}
@@ -0,0 +1,145 @@
+package com.outputfetcher;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+/**
+ * Turns a stream of raw UTF-8 deltas into complete lines.
+ *
+ * Each poll hands over whatever bytes were appended since the last one, which
+ * may end in the middle of a line or even in the middle of a multi-byte
+ * character. The assembler keeps both across calls:
+ * - Bytes of an incomplete character are carried over and decoded together
+ * with the next delta
+ * - Text after the last '\n' is held as a partial line until its newline
+ * arrives, or until it has been waiting longer than a flush timeout
+ *
+ * Decoding works directly on ByteBuffers through a reusable CharBuffer, so no
+ * String of the whole delta is built. One instance serves one tab and is not
+ * thread-safe; callers hold the tab's fetch lock.
+ */
+public class LineAssembler {
+    /** Longest incomplete UTF-8 sequence that can be left over between deltas */
+    private static final int MAX_CARRY_BYTES = 3;
+
+    private final CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    private final CharBuffer chars = CharBuffer.allocate(8192);
+    private final ByteBuffer carry = ByteBuffer.allocate(MAX_CARRY_BYTES + 1);
+    private final StringBuilder partial = new StringBuilder();
+
+    /** System.currentTimeMillis() when the partial line started, or 0 if none */
+    private long partialSince;
+
+    /**
+     * Decodes a delta and emits every line it completes.
+     *
+     * @param bytes The new raw bytes; fully consumed by this call
+     * @param sink  Receives each complete line without its newline
+     */
+    public void feed(ByteBuffer bytes, Consumer<String> sink) {
+        if (carry.position() > 0) {
+            // Complete the character cut at the end of the previous delta
+            while (bytes.hasRemaining()) {
+                carry.put(bytes.get());
+                carry.flip();
+                decode(carry, false, sink);
+                boolean completed = !carry.hasRemaining();
+                carry.compact();
+                if (completed) {
+                    break;
+                }
+            }
+        }
+
+        decode(bytes, false, sink);
+        carry.put(bytes);
+
+        if (partial.length() > 0 && partialSince == 0) {
+            partialSince = System.currentTimeMillis();
+        }
+    }
+
+    /**
+     * Emits the partial line if it has been waiting for its newline for at
+     * least {@code timeoutMs}. A timeout of 0 or less disables flushing.
+     *
+     * @param timeoutMs How long a trailing line may wait for its newline
+     * @param sink      Receives the flushed line
+     * @return true if a line was flushed
+     */
+    public boolean flushIfOlderThan(long timeoutMs, Consumer<String> sink) {
+        if (timeoutMs <= 0 || partialSince == 0 || System.currentTimeMillis() - partialSince < timeoutMs) {
+            return false;
+        }
+        flush(sink);
+        return true;
+    }
+
+    /**
+     * Emits whatever is buffered as a final line, decoding any carried bytes
+     * as replacement characters. Used at the end of a file or chunk.
+     *
+     * @param sink Receives the trailing line, if any
+     */
+    public void flush(Consumer<String> sink) {
+        carry.flip();
+        decode(carry, true, sink);
+        carry.clear();
+        chars.clear();
+        decoder.flush(chars);
+        chars.flip();
+        partial.append(chars);
+        decoder.reset();
+
+        if (partial.length() > 0) {
+            sink.accept(partial.toString());
+        }
+        partial.setLength(0);
+        partialSince = 0;
+    }
+
+    /**
+     * Drops all carried bytes and any partial line, e.g. when the file is
+     * replaced or the log is cleared.
+     */
+    public void reset() {
+        decoder.reset();
+        carry.clear();
+        partial.setLength(0);
+        partialSince = 0;
+    }
+
+    private void decode(ByteBuffer in, boolean endOfInput, Consumer<String> sink) {
+        while (true) {
+            chars.clear();
+            CoderResult cr = decoder.decode(in, chars, endOfInput);
+            chars.flip();
+
+            char[] buf = chars.array();
+            int start = chars.arrayOffset() + chars.position();
+            int end = chars.arrayOffset() + chars.limit();
+            int lineStart = start;
+            for (int i = start; i < end; i++) {
+                if (buf[i] == '\n') {
+                    partial.append(buf, lineStart, i - lineStart);
+                    sink.accept(partial.toString());
+                    partial.setLength(0);
+                    partialSince = 0;
+                    lineStart = i + 1;
+                }
+            }
+            partial.append(buf, lineStart, end - lineStart);
+
+            if (cr.isUnderflow()) {
+                return;
+            }
+        }
+    }
+}
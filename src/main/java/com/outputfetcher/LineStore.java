@@ -0,0 +1,503 @@
+package com.outputfetcher;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Compact per-tab store of every received line, used to re-render the text
+ * area when display options change and to export the log.
+ *
+ * Line text is packed into shared byte chunks of up to CHUNK_BYTES, so a
+ * line costs its bytes plus a few array slots instead of an object of its
+ * own:
+ * - Text is Latin-1 when every char fits in a byte and UTF-8 otherwise, so
+ * typical log text takes one byte per char instead of two
+ * - Each line is located by parallel ring arrays holding its chunk, its
+ * offset as a char, its length with the encoding in the sign, and its
+ * arrival time as an int of milliseconds from its chunk's base time, 14
+ * bytes in all
+ * - Lines are addressed by index from the oldest, in O(1)
+ * - Once the line limit or the byte budget is reached, the oldest lines are
+ * evicted; a chunk is dropped as soon as none of its lines is kept
+ *
+ * Not thread-safe. The live store is used only on the EDT; background work
+ * such as re-rendering reads a {@link #copy()} taken on the EDT.
+ */
+public class LineStore {
+    /** Bytes per line besides its text: chunk, offset, length and time slots */
+    private static final int LINE_OVERHEAD = 4 + 2 + 4 + 4;
+
+    /**
+     * Largest chunk allocated for ordinary lines, so every offset fits in a
+     * char; a longer line gets a chunk of its own
+     */
+    private static final int CHUNK_BYTES = Character.MAX_VALUE;
+
+    /** Time slot of a line stored with LogTimestamps.UNKNOWN */
+    private static final int UNKNOWN_TIME = Integer.MIN_VALUE;
+
+    /** Base time of a chunk that holds no line with a known time yet */
+    private static final long NO_BASE_TIME = Long.MIN_VALUE;
+
+    /** Smallest chunk, so a tab with a handful of lines stays small */
+    private static final int MIN_CHUNK_BYTES = 4 * 1024;
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private int maxLines;
+    private long maxBytes;
+
+    /**
+     * Per line, by ring slot: where its text is, its length (bitwise
+     * complemented when the text is UTF-8) and when it arrived
+     */
+    private int[] chunkOf = new int[INITIAL_CAPACITY];
+    private char[] offsetOf = new char[INITIAL_CAPACITY];
+    private int[] lengthOf = new int[INITIAL_CAPACITY];
+    private int[] timeOf = new int[INITIAL_CAPACITY];
+    private int head;
+    private int size;
+    private long bytes;
+
+    /**
+     * Text chunks by chunk number, with the number of kept lines and the base
+     * time of each; freed numbers are reused
+     */
+    private byte[][] chunks = new byte[16][];
+    private int[] chunkLines = new int[16];
+    private long[] chunkTimes = new long[16];
+    private int[] freeChunks = new int[16];
+    private int freeCount;
+    private int chunkCount;
+
+    /** Chunk that new lines are written into, and how much of it is used */
+    private int fillChunk = -1;
+    private int fill;
+    /**
+     * Bytes of fillChunk that a copy may still read; removing the newest
+     * lines never hands them out again, so copies stay valid
+     */
+    private int fillFloor;
+
+    /** Lines ever appended with add(), including evicted ones */
+    private long addedCount;
+    /** Id of the oldest kept line; line i has id firstId + i */
+    private long firstId;
+
+    /**
+     * @param maxLines Maximum number of lines kept
+     * @param maxBytes Estimated memory budget for the kept lines
+     */
+    public LineStore(int maxLines, long maxBytes) {
+        this.maxLines = Math.max(1, maxLines);
+        this.maxBytes = Math.max(1, maxBytes);
+    }
+
+    /**
+     * Changes the limits, evicting the oldest lines if the store is now over
+     * either of them.
+     *
+     * @param maxLines Maximum number of lines kept
+     * @param maxBytes Estimated memory budget for the kept lines
+     */
+    public void setLimits(int maxLines, long maxBytes) {
+        this.maxLines = Math.max(1, maxLines);
+        this.maxBytes = Math.max(1, maxBytes);
+        while (size > this.maxLines || (size > 0 && bytes > this.maxBytes)) {
+            removeFirst();
+        }
+    }
+
+    /**
+     * Appends a line, evicting the oldest lines if a limit is exceeded.
+     *
+     * @param timeMillis When the line arrived
+     * @param line       The line content without timestamp or newline
+     * @return The line's id
+     */
+    public long add(long timeMillis, String line) {
+        boolean wide = !isLatin1(line);
+        byte[] encoded = line.getBytes(wide ? StandardCharsets.UTF_8 : StandardCharsets.ISO_8859_1);
+        long cost = encoded.length + LINE_OVERHEAD;
+
+        while (size > 0 && (size >= maxLines || bytes + cost > maxBytes)) {
+            removeFirst();
+        }
+        ensureCapacity();
+        put(slot(size), encoded, wide, timeMillis);
+        size++;
+        bytes += cost;
+        addedCount++;
+        return firstId + size - 1;
+    }
+
+    /**
+     * Inserts a line before the oldest one, e.g. when older content is
+     * backfilled. Older lines never evict newer ones.
+     *
+     * @param timeMillis When the line arrived
+     * @param line       The line content without timestamp or newline
+     * @return false if the store is full and the line was not added
+     */
+    public boolean addFirst(long timeMillis, String line) {
+        boolean wide = !isLatin1(line);
+        byte[] encoded = line.getBytes(wide ? StandardCharsets.UTF_8 : StandardCharsets.ISO_8859_1);
+        long cost = encoded.length + LINE_OVERHEAD;
+        if (size >= maxLines || bytes + cost > maxBytes) {
+            return false;
+        }
+        ensureCapacity();
+        head = (head - 1 + chunkOf.length) % chunkOf.length;
+        firstId--;
+        put(head, encoded, wide, timeMillis);
+        size++;
+        bytes += cost;
+        return true;
+    }
+
+    /**
+     * @param index Line index, 0 being the oldest kept line
+     * @return The line's content
+     */
+    public String line(int index) {
+        int slot = checkedSlot(index);
+        int length = lengthOf[slot];
+        return length >= 0
+                ? new String(chunks[chunkOf[slot]], offsetOf[slot], length, StandardCharsets.ISO_8859_1)
+                : new String(chunks[chunkOf[slot]], offsetOf[slot], ~length, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @param index Line index, 0 being the oldest kept line
+     * @return When the line arrived, in epoch milliseconds, or
+     *         LogTimestamps.UNKNOWN
+     */
+    public long time(int index) {
+        int slot = checkedSlot(index);
+        int time = timeOf[slot];
+        return time == UNKNOWN_TIME ? LogTimestamps.UNKNOWN : chunkTimes[chunkOf[slot]] + time;
+    }
+
+    /**
+     * Finds a term in a line. A Latin-1 line is compared byte by byte where it
+     * is stored, so no String is built for it.
+     *
+     * @param index         Line index, 0 being the oldest kept line
+     * @param term          The text to find
+     * @param from          First column a match may start at
+     * @param caseSensitive Whether case must match
+     * @return The column of the first match at or after {@code from}, or -1
+     */
+    public int indexOf(int index, String term, int from, boolean caseSensitive) {
+        int slot = checkedSlot(index);
+        if (lengthOf[slot] < 0) {
+            return indexOf(line(index), term, from, caseSensitive);
+        }
+        byte[] chunk = chunks[chunkOf[slot]];
+        int offset = offsetOf[slot];
+        for (int at = Math.max(0, from); at <= lengthOf[slot] - term.length(); at++) {
+            if (matches(chunk, offset + at, term, caseSensitive)) {
+                return at;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Finds the last occurrence of a term in a line that starts at or before
+     * a column, comparing a Latin-1 line where it is stored.
+     *
+     * @param index         Line index, 0 being the oldest kept line
+     * @param term          The text to find
+     * @param from          Last column a match may start at
+     * @param caseSensitive Whether case must match
+     * @return The column of the match, or -1
+     */
+    public int lastIndexOf(int index, String term, int from, boolean caseSensitive) {
+        int slot = checkedSlot(index);
+        if (lengthOf[slot] < 0) {
+            return lastIndexOf(line(index), term, from, caseSensitive);
+        }
+        byte[] chunk = chunks[chunkOf[slot]];
+        int offset = offsetOf[slot];
+        for (int at = Math.min(from, lengthOf[slot] - term.length()); at >= 0; at--) {
+            if (matches(chunk, offset + at, term, caseSensitive)) {
+                return at;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the total number of lines ever appended with {@link #add}. The
+     * difference between two readings is how many of the newest lines arrived
+     * in between, regardless of evictions.
+     *
+     * @return Lines appended since the store was created
+     */
+    public long addedCount() {
+        return addedCount;
+    }
+
+    /**
+     * Copies the store for reading on another thread. Chunk bytes that hold a
+     * kept line are never written again, so the chunks are shared and only
+     * the index arrays are copied.
+     *
+     * @return An independent store with the same lines and limits
+     */
+    public LineStore copy() {
+        LineStore copy = new LineStore(maxLines, maxBytes);
+        copy.chunkOf = Arrays.copyOf(chunkOf, chunkOf.length);
+        copy.offsetOf = Arrays.copyOf(offsetOf, offsetOf.length);
+        copy.lengthOf = Arrays.copyOf(lengthOf, lengthOf.length);
+        copy.timeOf = Arrays.copyOf(timeOf, timeOf.length);
+        copy.head = head;
+        copy.size = size;
+        copy.bytes = bytes;
+        copy.chunks = Arrays.copyOf(chunks, chunks.length);
+        copy.chunkLines = Arrays.copyOf(chunkLines, chunkLines.length);
+        copy.chunkTimes = Arrays.copyOf(chunkTimes, chunkTimes.length);
+        copy.freeChunks = Arrays.copyOf(freeChunks, freeChunks.length);
+        copy.freeCount = freeCount;
+        copy.chunkCount = chunkCount;
+        // The live store must not reuse bytes the copy can see, and a copy never writes to shared chunks
+        fillFloor = fill;
+        copy.addedCount = addedCount;
+        copy.firstId = firstId;
+        return copy;
+    }
+
+    /**
+     * Returns the id of the oldest kept line. Ids stay with their lines while
+     * lines are appended or evicted, so line i has id firstId() + i; adding at
+     * the head lowers it.
+     *
+     * @return The oldest line's id
+     */
+    public long firstId() {
+        return firstId;
+    }
+
+    /**
+     * @param index Line index, 0 being the oldest kept line
+     * @return The line's encoded length, an upper bound on its length in chars
+     */
+    public int lineLength(int index) {
+        return length(checkedSlot(index));
+    }
+
+    /** @return Number of lines kept */
+    public int size() {
+        return size;
+    }
+
+    /** @return Estimated memory taken by the kept lines */
+    public long byteSize() {
+        return bytes;
+    }
+
+    /**
+     * Drops every line from {@code newSize} on, keeping the oldest ones.
+     *
+     * @param newSize Number of lines to keep
+     */
+    public void truncate(int newSize) {
+        while (size > Math.max(0, newSize)) {
+            int slot = slot(size - 1);
+            int chunk = chunkOf[slot];
+            // The newest line usually ends the fill chunk; its bytes can be written again
+            if (chunk == fillChunk && offsetOf[slot] + length(slot) == fill && offsetOf[slot] >= fillFloor) {
+                fill = offsetOf[slot];
+            }
+            release(slot);
+            size--;
+        }
+    }
+
+    /**
+     * Drops all lines.
+     */
+    public void clear() {
+        // Keep ids increasing, so a cleared line's id is never handed out again
+        firstId += size;
+        truncate(0);
+        head = 0;
+    }
+
+    private void removeFirst() {
+        release(head);
+        head = (head + 1) % chunkOf.length;
+        size--;
+        firstId++;
+    }
+
+    /**
+     * Writes a line's text into a chunk and records it in a ring slot.
+     */
+    private void put(int slot, byte[] encoded, boolean wide, long timeMillis) {
+        int chunk;
+        int offset;
+        if (encoded.length > CHUNK_BYTES) {
+            chunk = newChunk(encoded.length);
+            offset = 0;
+        } else {
+            if (fillChunk < 0 || chunks[fillChunk].length - fill < encoded.length
+                    || !fitsTime(fillChunk, timeMillis)) {
+                if (fillChunk >= 0 && chunkLines[fillChunk] == 0) {
+                    freeChunk(fillChunk);
+                }
+                int capacity = (int) Math.min(CHUNK_BYTES, Math.max(MIN_CHUNK_BYTES, bytes));
+                fillChunk = newChunk(Math.max(capacity, encoded.length));
+                fill = 0;
+                fillFloor = 0;
+            }
+            chunk = fillChunk;
+            offset = fill;
+            fill += encoded.length;
+        }
+        System.arraycopy(encoded, 0, chunks[chunk], offset, encoded.length);
+        chunkLines[chunk]++;
+        chunkOf[slot] = chunk;
+        offsetOf[slot] = (char) offset;
+        lengthOf[slot] = wide ? ~encoded.length : encoded.length;
+        if (timeMillis == LogTimestamps.UNKNOWN) {
+            timeOf[slot] = UNKNOWN_TIME;
+        } else {
+            if (chunkTimes[chunk] == NO_BASE_TIME) {
+                chunkTimes[chunk] = timeMillis;
+            }
+            timeOf[slot] = (int) (timeMillis - chunkTimes[chunk]);
+        }
+    }
+
+    /**
+     * @return Whether a line's time can be stored relative to a chunk's base
+     *         time
+     */
+    private boolean fitsTime(int chunk, long timeMillis) {
+        if (timeMillis == LogTimestamps.UNKNOWN || chunkTimes[chunk] == NO_BASE_TIME) {
+            return true;
+        }
+        long time = timeMillis - chunkTimes[chunk];
+        return time > UNKNOWN_TIME && time <= Integer.MAX_VALUE;
+    }
+
+    private int length(int slot) {
+        int length = lengthOf[slot];
+        return length >= 0 ? length : ~length;
+    }
+
+    /**
+     * Forgets the line in a ring slot, dropping its chunk once no kept line
+     * is in it. The chunk's bytes are left alone, since a copy may still read
+     * them.
+     */
+    private void release(int slot) {
+        bytes -= length(slot) + LINE_OVERHEAD;
+        int chunk = chunkOf[slot];
+        // The fill chunk is kept for the next lines even when empty
+        if (--chunkLines[chunk] == 0 && chunk != fillChunk) {
+            freeChunk(chunk);
+        }
+    }
+
+    private void freeChunk(int chunk) {
+        chunks[chunk] = null;
+        if (freeCount == freeChunks.length) {
+            freeChunks = Arrays.copyOf(freeChunks, freeCount * 2);
+        }
+        freeChunks[freeCount++] = chunk;
+    }
+
+    private int newChunk(int capacity) {
+        int chunk;
+        if (freeCount > 0) {
+            chunk = freeChunks[--freeCount];
+        } else {
+            if (chunkCount == chunks.length) {
+                chunks = Arrays.copyOf(chunks, chunkCount * 2);
+                chunkLines = Arrays.copyOf(chunkLines, chunkCount * 2);
+                chunkTimes = Arrays.copyOf(chunkTimes, chunkCount * 2);
+            }
+            chunk = chunkCount++;
+        }
+        chunks[chunk] = new byte[capacity];
+        chunkLines[chunk] = 0;
+        chunkTimes[chunk] = NO_BASE_TIME;
+        return chunk;
+    }
+
+    private void ensureCapacity() {
+        if (size < chunkOf.length) {
+            return;
+        }
+        int capacity = (int) Math.min((long) chunkOf.length * 2, maxLines);
+        chunkOf = grow(chunkOf, capacity);
+        lengthOf = grow(lengthOf, capacity);
+        timeOf = grow(timeOf, capacity);
+        char[] newOffsets = new char[capacity];
+        for (int i = 0; i < size; i++) {
+            newOffsets[i] = offsetOf[slot(i)];
+        }
+        offsetOf = newOffsets;
+        head = 0;
+    }
+
+    /** Copies a ring array into a larger one, oldest line first; head must be reset after */
+    private int[] grow(int[] ring, int capacity) {
+        int[] grown = new int[capacity];
+        for (int i = 0; i < size; i++) {
+            grown[i] = ring[slot(i)];
+        }
+        return grown;
+    }
+
+    private int slot(int index) {
+        int slot = head + index;
+        return slot < chunkOf.length ? slot : slot - chunkOf.length;
+    }
+
+    private int checkedSlot(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Line " + index + " of " + size);
+        }
+        return slot(index);
+    }
+
+    private static boolean matches(byte[] chunk, int position, String term, boolean caseSensitive) {
+        for (int i = 0; i < term.length(); i++) {
+            if (!TextSearch.same((char) (chunk[position + i] & 0xFF), term.charAt(i), caseSensitive)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int indexOf(String text, String term, int from, boolean caseSensitive) {
+        for (int at = Math.max(0, from); at <= text.length() - term.length(); at++) {
+            if (text.regionMatches(!caseSensitive, at, term, 0, term.length())) {
+                return at;
+            }
+        }
+        return -1;
+    }
+
+    private static int lastIndexOf(String text, String term, int from, boolean caseSensitive) {
+        for (int at = Math.min(from, text.length() - term.length()); at >= 0; at--) {
+            if (text.regionMatches(!caseSensitive, at, term, 0, term.length())) {
+                return at;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isLatin1(String line) {
+        for (int i = 0; i < line.length(); i++) {
+            if (line.charAt(i) > 0xFF) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,659 @@
+package com.outputfetcher;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.swing.text.AbstractDocument;
+import javax.swing.text.AttributeSet;
+import javax.swing.text.BadLocationException;
+import javax.swing.text.Document;
+import javax.swing.text.Element;
+import javax.swing.text.PlainDocument;
+import javax.swing.text.Position;
+import javax.swing.text.Segment;
+import javax.swing.text.SimpleAttributeSet;
+import javax.swing.undo.UndoableEdit;
+
+/**
+ * Plain text document tuned for append-heavy log tabs; a drop-in for the
+ * PlainDocument behind a JTextArea.
+ *
+ * Text lives in fixed-size char chunks that are only ever filled at the end,
+ * so appending never moves existing text the way a gap buffer does when its
+ * gap is elsewhere. Line starts are kept in one primitive array instead of an
+ * Element with two Positions per line; the line elements handed to views are
+ * created on demand. The common log operations are cheap:
+ * - Appending: O(length appended)
+ * - Finding the line of an offset: O(log lines)
+ * - Removing lines from the head (scrollback trimming): O(chunks and lines
+ * removed)
+ * - Truncating from an offset to the end (clear-to-bottom): O(chunks and
+ * lines removed)
+ * - Inserting at the start (backfill): O(length and lines inserted)
+ *
+ * Both arrays are addressed by absolute coordinates that never change while
+ * text is appended or removed from either end; offsets are an absolute
+ * coordinate minus the current base. Any other edit, such as rewriting a
+ * repeat counter on the last line, is done by re-appending the text after
+ * the edit and costs O(length after the edit).
+ *
+ * Undo is not supported.
+ */
+public class LogDocument extends AbstractDocument {
+    private static final long serialVersionUID = 1L;
+
+    /** Chars per storage chunk */
+    private static final int CHUNK_CHARS = 16 * 1024;
+
+    private static final char[] NEWLINE = { '\n' };
+
+    private static final Element[] NO_LINES = new Element[0];
+
+    private final LineRoot root = new LineRoot();
+
+    /** Absolute starts of each line, oldest at lineHead */
+    private long[] lineStarts = new long[64];
+    /** Line elements handed out so far, parallel to lineStarts; null until asked for */
+    private Line[] lines = new Line[64];
+    private int lineHead = 32;
+    private int lineEnd = lineHead;
+
+    /**
+     * Creates an empty document.
+     */
+    public LogDocument() {
+        super(new ChunkedContent());
+        putProperty(PlainDocument.tabSizeAttribute, 8);
+        lineStarts[lineEnd++] = content().base;
+    }
+
+    @Override
+    public Element getDefaultRootElement() {
+        return root;
+    }
+
+    @Override
+    public Element getParagraphElement(int pos) {
+        return root.getElement(root.getElementIndex(pos));
+    }
+
+    @Override
+    protected void insertUpdate(DefaultDocumentEvent chng, AttributeSet attr) {
+        ChunkedContent content = content();
+        int length = chng.getLength();
+        // The content already holds the new text
+        long start = content.base + chng.getOffset();
+        Segment text = new Segment();
+        try {
+            getText(chng.getOffset(), length, text);
+        } catch (BadLocationException e) {
+            throw new IllegalStateException(e);
+        }
+        int newLines = 0;
+        for (int i = 0; i < text.count; i++) {
+            if (text.array[text.offset + i] == '\n') {
+                newLines++;
+            }
+        }
+
+        if (lineStarts[lineHead] != content.base) {
+            // Inserted before the first line, which lowered the base
+            Element[] removed = { root.line(lineHead) };
+            boolean endsLine = text.array[text.offset + text.count - 1] == '\n';
+            if (!endsLine) {
+                // The old first line now continues the last inserted line
+                lines[lineHead++] = null;
+            }
+            int added = endsLine ? newLines : newLines + 1;
+            ensureHeadRoom(added);
+            int next = lineHead - added;
+            lineStarts[next++] = start;
+            for (int i = 0; i < text.count && next < lineHead; i++) {
+                if (text.array[text.offset + i] == '\n') {
+                    lineStarts[next++] = start + i + 1;
+                }
+            }
+            lineHead -= added;
+            chng.addEdit(new ElementEdit(root, 0, removed, root.lines(0, newLines + 1)));
+        } else {
+            // Inserted within a line; the lines after it move along
+            int index = root.lineIndexOf(start);
+            int after = lineHead + index + 1;
+            int laterLines = lineEnd - after;
+            if (newLines > 0 || laterLines > 0) {
+                Element[] removed = root.lines(index, laterLines + 1);
+                ensureTailRoom(newLines);
+                after = lineHead + index + 1;
+                System.arraycopy(lineStarts, after, lineStarts, after + newLines, laterLines);
+                for (int i = after + newLines; i < lineEnd + newLines; i++) {
+                    lineStarts[i] += length;
+                }
+                Arrays.fill(lines, after, lineEnd + newLines, null);
+                int next = after;
+                for (int i = 0; i < text.count; i++) {
+                    if (text.array[text.offset + i] == '\n') {
+                        lineStarts[next++] = start + i + 1;
+                    }
+                }
+                lineEnd += newLines;
+                chng.addEdit(new ElementEdit(root, index, removed, root.lines(index, laterLines + newLines + 1)));
+            }
+        }
+        super.insertUpdate(chng, attr);
+    }
+
+    @Override
+    protected void removeUpdate(DefaultDocumentEvent chng) {
+        // Called before the content changes, so coordinates are still the old ones
+        ChunkedContent content = content();
+        long start = content.base + chng.getOffset();
+        long end = start + chng.getLength();
+
+        if (start == content.base) {
+            // Lines before the one holding the new first char go away and that
+            // one loses its head, unless it starts exactly there
+            int last = root.lineIndexOf(end);
+            boolean cut = lineStarts[lineHead + last] != end;
+            Element[] removed = root.lines(0, cut ? last + 1 : last);
+            Arrays.fill(lines, lineHead, lineHead + last, null);
+            lineHead += last;
+            Element[] added = NO_LINES;
+            if (cut) {
+                lineStarts[lineHead] = end;
+                lines[lineHead] = null;
+                added = root.lines(0, 1);
+            }
+            chng.addEdit(new ElementEdit(root, 0, removed, added));
+        } else {
+            int index = root.lineIndexOf(start);
+            int after = lineHead + index + 1;
+            if (after == lineEnd) {
+                // Within the last line
+                return;
+            }
+            Element[] removed = root.lines(index, lineEnd - after + 1);
+            // Line starts right after a removed char go away, later ones move back
+            int write = after;
+            for (int read = after; read < lineEnd; read++) {
+                if (lineStarts[read] > end) {
+                    lineStarts[write++] = lineStarts[read] - (end - start);
+                }
+            }
+            Arrays.fill(lines, after, lineEnd, null);
+            lineEnd = write;
+            chng.addEdit(new ElementEdit(root, index, removed, root.lines(index, lineEnd - after + 1)));
+        }
+    }
+
+    private ChunkedContent content() {
+        return (ChunkedContent) getContent();
+    }
+
+    private void ensureHeadRoom(int count) {
+        if (lineHead >= count) {
+            return;
+        }
+        int used = lineEnd - lineHead;
+        int capacity = Math.max(lineStarts.length * 2, used + count * 2);
+        int newHead = capacity - used - (lineStarts.length - lineEnd);
+        move(lineHead, used, capacity, newHead);
+    }
+
+    private void ensureTailRoom(int count) {
+        if (lineEnd + count <= lineStarts.length) {
+            return;
+        }
+        int used = lineEnd - lineHead;
+        // Mostly trimmed from the head: slide down instead of growing
+        int capacity = used + count <= lineStarts.length / 2 ? lineStarts.length
+                : Math.max(lineStarts.length * 2, used + count + 64);
+        move(lineHead, used, capacity, 0);
+    }
+
+    private void move(int from, int count, int capacity, int to) {
+        long[] newStarts = capacity == lineStarts.length ? lineStarts : new long[capacity];
+        Line[] newLines = capacity == lines.length ? lines : new Line[capacity];
+        System.arraycopy(lineStarts, from, newStarts, to, count);
+        System.arraycopy(lines, from, newLines, to, count);
+        if (newLines == lines) {
+            Arrays.fill(lines, to + count, from + count, null);
+        }
+        lineStarts = newStarts;
+        lines = newLines;
+        lineHead = to;
+        lineEnd = to + count;
+    }
+
+    /**
+     * Root element whose children are the lines. Line elements are created
+     * when first asked for and kept while their start stays put, so views can
+     * compare them by identity as they do with PlainDocument's.
+     */
+    private final class LineRoot implements Element {
+        Line line(int arrayIndex) {
+            Line line = lines[arrayIndex];
+            if (line == null) {
+                line = new Line(lineStarts[arrayIndex]);
+                lines[arrayIndex] = line;
+            }
+            return line;
+        }
+
+        Element[] lines(int index, int count) {
+            Element[] result = new Element[count];
+            for (int i = 0; i < count; i++) {
+                result[i] = line(lineHead + index + i);
+            }
+            return result;
+        }
+
+        /** Index of the line holding an absolute coordinate */
+        int lineIndexOf(long position) {
+            int found = Arrays.binarySearch(lineStarts, lineHead, lineEnd, position);
+            int index = found >= 0 ? found : -found - 2;
+            return Math.max(0, index - lineHead);
+        }
+
+        @Override
+        public Document getDocument() {
+            return LogDocument.this;
+        }
+
+        @Override
+        public Element getParentElement() {
+            return null;
+        }
+
+        @Override
+        public String getName() {
+            return AbstractDocument.ParagraphElementName;
+        }
+
+        @Override
+        public AttributeSet getAttributes() {
+            return SimpleAttributeSet.EMPTY;
+        }
+
+        @Override
+        public int getStartOffset() {
+            return 0;
+        }
+
+        @Override
+        public int getEndOffset() {
+            return getLength() + 1;
+        }
+
+        @Override
+        public int getElementIndex(int offset) {
+            return lineIndexOf(content().base + Math.max(0, offset));
+        }
+
+        @Override
+        public int getElementCount() {
+            return lineEnd - lineHead;
+        }
+
+        @Override
+        public Element getElement(int index) {
+            if (index < 0 || index >= getElementCount()) {
+                return null;
+            }
+            return line(lineHead + index);
+        }
+
+        @Override
+        public boolean isLeaf() {
+            return false;
+        }
+    }
+
+    /**
+     * A line, identified by its absolute start. Its end is the next line's
+     * start, or the end of the document.
+     */
+    private final class Line implements Element {
+        private final long start;
+
+        Line(long start) {
+            this.start = start;
+        }
+
+        @Override
+        public Document getDocument() {
+            return LogDocument.this;
+        }
+
+        @Override
+        public Element getParentElement() {
+            return root;
+        }
+
+        @Override
+        public String getName() {
+            return AbstractDocument.ContentElementName;
+        }
+
+        @Override
+        public AttributeSet getAttributes() {
+            return SimpleAttributeSet.EMPTY;
+        }
+
+        @Override
+        public int getStartOffset() {
+            return (int) Math.max(0, Math.min(start - content().base, getLength()));
+        }
+
+        @Override
+        public int getEndOffset() {
+            int found = Arrays.binarySearch(lineStarts, lineHead, lineEnd, start);
+            int next = found >= 0 ? found + 1 : -found - 1;
+            if (next >= lineEnd) {
+                return getLength() + 1;
+            }
+            return (int) Math.max(getStartOffset(), lineStarts[next] - content().base);
+        }
+
+        @Override
+        public int getElementIndex(int offset) {
+            return -1;
+        }
+
+        @Override
+        public int getElementCount() {
+            return 0;
+        }
+
+        @Override
+        public Element getElement(int index) {
+            return null;
+        }
+
+        @Override
+        public boolean isLeaf() {
+            return true;
+        }
+    }
+
+    /**
+     * Content stored in append-only chunks addressed by absolute coordinates.
+     * The implicit trailing newline every Swing document ends with is not
+     * stored.
+     */
+    private static final class ChunkedContent implements AbstractDocument.Content {
+        private char[][] chunks = new char[16][];
+        private long[] chunkStarts = new long[16];
+        private int chunkHead = 8;
+        private int chunkEnd = chunkHead;
+
+        /** Absolute coordinate of offset 0 */
+        long base;
+        /** Absolute coordinate just past the last stored char */
+        private long end;
+
+        private final List<WeakReference<ChunkPosition>> positions = new ArrayList<>();
+        private int positionsAtLastPurge;
+
+        @Override
+        public Position createPosition(int offset) throws BadLocationException {
+            if (offset < 0 || offset > length()) {
+                throw new BadLocationException("Invalid position", offset);
+            }
+            if (positions.size() > 2 * positionsAtLastPurge + 16) {
+                positions.removeIf(ref -> ref.get() == null);
+                positionsAtLastPurge = positions.size();
+            }
+            ChunkPosition position = new ChunkPosition(base + offset);
+            positions.add(new WeakReference<>(position));
+            return position;
+        }
+
+        @Override
+        public int length() {
+            return (int) (end - base) + 1;
+        }
+
+        @Override
+        public UndoableEdit insertString(int where, String str) throws BadLocationException {
+            if (where < 0 || where >= length()) {
+                throw new BadLocationException("Invalid insert", where);
+            }
+            long at = base + where;
+            if (at == end) {
+                shiftPositions(at, str.length());
+                append(str);
+            } else if (at == base) {
+                prepend(str);
+            } else {
+                String tail = text(at, end);
+                shiftPositions(at, str.length());
+                truncate(at);
+                append(str);
+                append(tail);
+            }
+            return null;
+        }
+
+        @Override
+        public UndoableEdit remove(int where, int nitems) throws BadLocationException {
+            if (where < 0 || nitems < 0 || where + nitems >= length()) {
+                throw new BadLocationException("Invalid remove", where);
+            }
+            long from = base + where;
+            long to = from + nitems;
+            if (from == base) {
+                // Nothing moves; positions in the removed head go to the new start
+                dropHead(to);
+                for (WeakReference<ChunkPosition> ref : positions) {
+                    ChunkPosition position = ref.get();
+                    if (position != null && position.absolute < to) {
+                        position.absolute = to;
+                    }
+                }
+                return null;
+            }
+            if (to == end) {
+                truncate(from);
+            } else {
+                String tail = text(to, end);
+                truncate(from);
+                append(tail);
+            }
+            for (WeakReference<ChunkPosition> ref : positions) {
+                ChunkPosition position = ref.get();
+                if (position != null && position.absolute > from) {
+                    position.absolute = position.absolute >= to ? position.absolute - nitems : from;
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public String getString(int where, int len) throws BadLocationException {
+            Segment segment = new Segment();
+            getChars(where, len, segment);
+            return new String(segment.array, segment.offset, segment.count);
+        }
+
+        @Override
+        public void getChars(int where, int len, Segment txt) throws BadLocationException {
+            if (where < 0 || len < 0 || where + len > length()) {
+                throw new BadLocationException("Invalid range", where);
+            }
+            long from = base + where;
+            long to = from + len;
+            if (from == end) {
+                // Only the implicit trailing newline
+                txt.array = NEWLINE;
+                txt.offset = 0;
+                txt.count = len;
+                return;
+            }
+            int chunk = chunkIndexOf(from);
+            long chunkEndAt = chunk + 1 < chunkEnd ? chunkStarts[chunk + 1] : end;
+            if (to <= chunkEndAt || txt.isPartialReturn()) {
+                // Point straight into the chunk without copying
+                txt.array = chunks[chunk];
+                txt.offset = (int) (from - chunkStarts[chunk]);
+                txt.count = (int) (Math.min(to, chunkEndAt) - from);
+                return;
+            }
+            char[] copy = new char[len];
+            long stored = Math.min(to, end);
+            copyTo(from, stored, copy, 0);
+            if (to > end) {
+                copy[len - 1] = '\n';
+            }
+            txt.array = copy;
+            txt.offset = 0;
+            txt.count = len;
+        }
+
+        private String text(long from, long to) {
+            char[] copy = new char[(int) (to - from)];
+            copyTo(from, to, copy, 0);
+            return new String(copy);
+        }
+
+        private void copyTo(long from, long to, char[] dest, int destOffset) {
+            int chunk = chunkIndexOf(from);
+            long at = from;
+            while (at < to) {
+                long chunkEndAt = chunk + 1 < chunkEnd ? chunkStarts[chunk + 1] : end;
+                int count = (int) (Math.min(to, chunkEndAt) - at);
+                System.arraycopy(chunks[chunk], (int) (at - chunkStarts[chunk]), dest, destOffset, count);
+                destOffset += count;
+                at += count;
+                chunk++;
+            }
+        }
+
+        private int chunkIndexOf(long position) {
+            int found = Arrays.binarySearch(chunkStarts, chunkHead, chunkEnd, position);
+            return found >= 0 ? found : -found - 2;
+        }
+
+        private void append(String str) {
+            int written = 0;
+            while (written < str.length()) {
+                int chunk = chunkEnd - 1;
+                int used = chunk >= chunkHead ? (int) (end - chunkStarts[chunk]) : 0;
+                if (chunk < chunkHead || used == chunks[chunk].length) {
+                    addChunk(new char[CHUNK_CHARS], end);
+                    chunk = chunkEnd - 1;
+                    used = 0;
+                }
+                int count = Math.min(str.length() - written, chunks[chunk].length - used);
+                str.getChars(written, written + count, chunks[chunk], used);
+                written += count;
+                end += count;
+            }
+        }
+
+        private void prepend(String str) {
+            long oldBase = base;
+            base -= str.length();
+            if (chunkStarts[chunkHead] < oldBase) {
+                // The first chunk still holds trimmed text; merge its live part into the new one
+                long firstEnd = chunkHead + 1 < chunkEnd ? chunkStarts[chunkHead + 1] : end;
+                int live = (int) (firstEnd - oldBase);
+                char[] merged = new char[str.length() + live];
+                str.getChars(0, str.length(), merged, 0);
+                System.arraycopy(chunks[chunkHead], (int) (oldBase - chunkStarts[chunkHead]), merged, str.length(), live);
+                chunks[chunkHead] = merged;
+                chunkStarts[chunkHead] = base;
+            } else {
+                if (chunkHead == 0) {
+                    int count = chunkEnd - chunkHead;
+                    int capacity = Math.max(chunks.length * 2, count + 16);
+                    char[][] grownChunks = new char[capacity][];
+                    long[] grownStarts = new long[capacity];
+                    int newHead = capacity - count - (chunks.length - chunkEnd);
+                    System.arraycopy(chunks, chunkHead, grownChunks, newHead, count);
+                    System.arraycopy(chunkStarts, chunkHead, grownStarts, newHead, count);
+                    chunks = grownChunks;
+                    chunkStarts = grownStarts;
+                    chunkHead = newHead;
+                    chunkEnd = newHead + count;
+                }
+                chunkHead--;
+                chunks[chunkHead] = str.toCharArray();
+                chunkStarts[chunkHead] = base;
+            }
+            for (WeakReference<ChunkPosition> ref : positions) {
+                ChunkPosition position = ref.get();
+                if (position != null && position.absolute == oldBase) {
+                    // Like a gap buffer, keep positions at offset 0 at the start
+                    position.absolute = base;
+                }
+            }
+        }
+
+        private void addChunk(char[] chunk, long start) {
+            if (chunkEnd == chunks.length) {
+                int count = chunkEnd - chunkHead;
+                int capacity = chunkHead > chunks.length / 2 ? chunks.length : chunks.length * 2;
+                char[][] grownChunks = new char[capacity][];
+                long[] grownStarts = new long[capacity];
+                System.arraycopy(chunks, chunkHead, grownChunks, 0, count);
+                System.arraycopy(chunkStarts, chunkHead, grownStarts, 0, count);
+                chunks = grownChunks;
+                chunkStarts = grownStarts;
+                chunkHead = 0;
+                chunkEnd = count;
+            }
+            chunks[chunkEnd] = chunk;
+            chunkStarts[chunkEnd] = start;
+            chunkEnd++;
+        }
+
+        private void dropHead(long newBase) {
+            while (chunkEnd - chunkHead > 1 && chunkStarts[chunkHead + 1] <= newBase) {
+                chunks[chunkHead] = null;
+                chunkHead++;
+            }
+            base = newBase;
+            if (base == end) {
+                // Empty; let the next append start a fresh chunk
+                while (chunkEnd > chunkHead) {
+                    chunks[--chunkEnd] = null;
+                }
+                chunkHead = chunks.length / 2;
+                chunkEnd = chunkHead;
+            }
+        }
+
+        private void truncate(long newEnd) {
+            while (chunkEnd > chunkHead && chunkStarts[chunkEnd - 1] >= newEnd) {
+                chunks[--chunkEnd] = null;
+            }
+            end = newEnd;
+        }
+
+        /** Moves positions at or after an insertion, except one at offset 0, like GapContent */
+        private void shiftPositions(long at, int length) {
+            for (WeakReference<ChunkPosition> ref : positions) {
+                ChunkPosition position = ref.get();
+                if (position != null && (position.absolute > at || (position.absolute == at && at != base))) {
+                    position.absolute += length;
+                }
+            }
+        }
+
+        /** A position that keeps its absolute coordinate while text is appended or trimmed */
+        private final class ChunkPosition implements Position {
+            long absolute;
+
+            ChunkPosition(long absolute) {
+                this.absolute = absolute;
+            }
+
+            @Override
+            public int getOffset() {
+                return (int) Math.max(0, Math.min(absolute - base, end - base + 1));
+            }
+        }
+    }
+}
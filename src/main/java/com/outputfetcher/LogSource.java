@@ -0,0 +1,65 @@
+package com.outputfetcher;
+
+import java.io.IOException;
+
+import com.jcraft.jsch.JSchException;
+import com.jcraft.jsch.Session;
+
+/**
+ * Strategy for reading new content of a remote log file over an SSH session.
+ *
+ * A single call returns the file's current state together with every byte
+ * written since the given offset, so one poll costs one round trip and the
+ * size and payload always describe the same snapshot of the file.
+ *
+ * Sources also serve bounded ranges, which are used to load only the end of
+ * a large file on first connect and to backfill older content on demand.
+ */
+public interface LogSource {
+    /** Bytes read from the end of the file on first connect */
+    long INITIAL_LOAD_BYTES = 1024 * 1024;
+
+    /** Most bytes read by one poll; a larger delta is read over several polls in a row */
+    long POLL_CHUNK_BYTES = 1024 * 1024;
+
+    /**
+     * Reads the file state and all raw bytes from {@code offset} to the
+     * current end of the file into {@code result}, reusing its buffer.
+     *
+     * @param session The connected session to open channels on
+     * @param logFile The remote path of the log file
+     * @param offset  The byte offset to read from
+     * @param result  The tab's result holder; cleared and filled by this call
+     * @throws JSchException If a channel could not be opened
+     * @throws IOException   If the response could not be read or parsed
+     */
+    default void fetch(Session session, String logFile, long offset, FetchResult result)
+            throws JSchException, IOException {
+        fetchRange(session, logFile, offset, -1, result);
+    }
+
+    /**
+     * Reads the file state and at most {@code length} raw bytes starting at
+     * {@code offset} into {@code result}. The payload never extends past the
+     * size reported in the same call.
+     *
+     * @param session The connected session to open channels on
+     * @param logFile The remote path of the log file
+     * @param offset  The byte offset to read from; a negative value selects the
+     *                last {@code -offset} bytes of the file
+     * @param length  The maximum number of bytes to read, or -1 for all bytes up
+     *                to the end of the file
+     * @param result  The tab's result holder; cleared and filled by this call,
+     *                with {@link FetchResult#offset} set to the resolved start
+     * @throws JSchException If a channel could not be opened
+     * @throws IOException   If the response could not be read or parsed
+     */
+    void fetchRange(Session session, String logFile, long offset, long length, FetchResult result)
+            throws JSchException, IOException;
+
+    /**
+     * Releases any channel the source keeps open between fetches.
+     */
+    default void close() {
+    }
+}
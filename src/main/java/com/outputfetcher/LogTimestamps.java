@@ -0,0 +1,71 @@
+package com.outputfetcher;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Shared source of "yyyy-MM-dd HH:mm:ss" timestamps for log lines and
+ * status labels.
+ *
+ * Formatting uses one immutable DateTimeFormatter, and the formatted string
+ * for the current second is cached, so every line appended within the same
+ * second reuses a single String instead of building a SimpleDateFormat and a
+ * Date per line. Safe to call from any thread.
+ */
+public final class LogTimestamps {
+    /** Time of a line whose arrival time is not known, e.g. a backfilled older line */
+    public static final long UNKNOWN = Long.MIN_VALUE;
+
+    /** Shown in place of an unknown time, as wide as a formatted one */
+    private static final String UNKNOWN_TEXT = "????-??-?? ??:??:??";
+
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")
+            .withZone(ZoneId.systemDefault());
+
+    /** The most recently formatted second; replaced as a whole so readers never see a torn pair */
+    private static volatile Cached cached = new Cached(Long.MIN_VALUE, "");
+
+    private LogTimestamps() {
+    }
+
+    private static final class Cached {
+        final long epochSecond;
+        final String text;
+
+        Cached(long epochSecond, String text) {
+            this.epochSecond = epochSecond;
+            this.text = text;
+        }
+    }
+
+    /**
+     * Returns the current time formatted as "yyyy-MM-dd HH:mm:ss".
+     *
+     * @return The formatted time, shared by all callers within the same second
+     */
+    public static String now() {
+        return format(System.currentTimeMillis());
+    }
+
+    /**
+     * Formats a time as "yyyy-MM-dd HH:mm:ss". Consecutive calls for the same
+     * second, such as when re-rendering stored lines, reuse one String.
+     *
+     * @param epochMillis The time to format, or {@link #UNKNOWN}
+     * @return The formatted time, or a placeholder of the same width if the
+     *         time is unknown
+     */
+    public static String format(long epochMillis) {
+        if (epochMillis == UNKNOWN) {
+            return UNKNOWN_TEXT;
+        }
+        long second = Math.floorDiv(epochMillis, 1000);
+        Cached current = cached;
+        if (current.epochSecond != second) {
+            current = new Cached(second, FORMATTER.format(Instant.ofEpochSecond(second)));
+            cached = current;
+        }
+        return current.text;
+    }
+}
@@ -0,0 +1,618 @@
+package com.outputfetcher;
+
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics;
+import java.awt.Insets;
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.awt.Toolkit;
+import java.awt.datatransfer.StringSelection;
+import java.awt.event.KeyAdapter;
+import java.awt.event.KeyEvent;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.util.Arrays;
+import java.util.function.BooleanSupplier;
+
+import javax.swing.JComponent;
+import javax.swing.JViewport;
+import javax.swing.Scrollable;
+import javax.swing.SwingConstants;
+import javax.swing.SwingUtilities;
+
+/**
+ * Virtualized view of a tab's log for very large scrollbacks.
+ *
+ * Unlike the JTextArea, which keeps the whole text in its document and lays
+ * all of it out, this component reads lines straight from the tab's
+ * LineStore and paints only the rows inside the visible clip. Rows have a
+ * fixed height and the preferred size is computed arithmetically, so
+ * scrolling costs the same at ten million lines as at ten.
+ *
+ * When neither duplicate filtering nor repeat collapsing is on, row i is
+ * simply line i of the store. Otherwise a row index of store line ids and
+ * repeat counts is kept, 12 bytes per shown row, and extended incrementally
+ * as lines arrive.
+ *
+ * Font, colors and margins are taken from the tab's text area on every paint,
+ * so theme and font changes apply to both views. Selection by mouse, Ctrl+A,
+ * Ctrl+C and search highlighting (as a selection) are supported; word wrap is
+ * not. Used only on the EDT.
+ */
+public class LogViewport extends JComponent implements Scrollable {
+    private static final long serialVersionUID = 1L;
+
+    private final TabInfo tabInfo;
+
+    /** Whether rows go through the index below rather than mapping 1:1 to store lines */
+    private boolean indexed;
+    private long[] rowIds = new long[0];
+    private int[] rowRepeats = new int[0];
+    private int rowStart;
+    private int rowEnd;
+    /** Rows dropped from the head of the index since the last rebuild */
+    private long droppedRows;
+    private DuplicateFilter filter;
+    private String lastContent;
+
+    /** Id of the next store line to index */
+    private long nextId;
+    private int maxColumns;
+
+    /** Selection as absolute rows (see firstRow()) and columns; -1 if none */
+    private long anchorRow = -1;
+    private int anchorColumn;
+    private long caretRow = -1;
+    private int caretColumn;
+
+    /**
+     * @param tabInfo The tab whose line store and text area settings to use
+     */
+    public LogViewport(TabInfo tabInfo) {
+        this.tabInfo = tabInfo;
+        setFocusable(true);
+        setOpaque(true);
+
+        // Font and colors live on the text area; follow its changes
+        tabInfo.textArea.addPropertyChangeListener(e -> {
+            String property = e.getPropertyName();
+            if ("font".equals(property) || "foreground".equals(property) || "background".equals(property)) {
+                revalidate();
+                repaint();
+            }
+        });
+
+        MouseAdapter mouse = new MouseAdapter() {
+            @Override
+            public void mousePressed(MouseEvent e) {
+                requestFocusInWindow();
+                long[] position = positionAt(e.getPoint());
+                if (!e.isShiftDown() || anchorRow < 0) {
+                    anchorRow = position[0];
+                    anchorColumn = (int) position[1];
+                }
+                caretRow = position[0];
+                caretColumn = (int) position[1];
+                repaint();
+            }
+
+            @Override
+            public void mouseDragged(MouseEvent e) {
+                long[] position = positionAt(e.getPoint());
+                caretRow = position[0];
+                caretColumn = (int) position[1];
+                scrollRectToVisible(new Rectangle(e.getX(), e.getY(), 1, 1));
+                repaint();
+            }
+        };
+        addMouseListener(mouse);
+        addMouseMotionListener(mouse);
+
+        addKeyListener(new KeyAdapter() {
+            @Override
+            public void keyPressed(KeyEvent e) {
+                if (e.isControlDown() && e.getKeyCode() == KeyEvent.VK_C) {
+                    copySelection();
+                } else if (e.isControlDown() && e.getKeyCode() == KeyEvent.VK_A) {
+                    selectAll();
+                } else if (e.getKeyCode() == KeyEvent.VK_END) {
+                    scrollToEnd();
+                } else if (e.getKeyCode() == KeyEvent.VK_HOME) {
+                    scrollRectToVisible(new Rectangle(0, 0, 1, 1));
+                }
+            }
+        });
+    }
+
+    /**
+     * Picks up lines appended to the store since the last call and drops rows
+     * whose lines were evicted. Keeps the view at the end if it was there, and
+     * otherwise keeps the visible rows in place when rows leave the head.
+     */
+    public void linesAdded() {
+        LineStore store = tabInfo.lineStore;
+        long firstId = store.firstId();
+        long endId = firstId + store.size();
+        boolean atEnd = isAtEnd();
+        long firstRowBefore = firstRow();
+
+        if (indexed) {
+            while (rowStart < rowEnd && rowIds[rowStart] < firstId) {
+                rowStart++;
+                droppedRows++;
+            }
+        }
+
+        int prefixColumns = prefixColumns();
+        for (long id = Math.max(nextId, firstId); id < endId; id++) {
+            int index = (int) (id - firstId);
+            int columns = store.lineLength(index) + prefixColumns;
+            if (indexed) {
+                String content = store.line(index);
+                if (tabInfo.collapseRepeats && rowEnd > rowStart && content.equals(lastContent)) {
+                    rowRepeats[rowEnd - 1]++;
+                    columns += counterText(rowRepeats[rowEnd - 1]).length();
+                    maxColumns = Math.max(maxColumns, columns);
+                    continue;
+                }
+                if (tabInfo.filterDuplicates && filter.isDuplicate(content)) {
+                    continue;
+                }
+                addRow(id);
+                lastContent = content;
+            }
+            maxColumns = Math.max(maxColumns, columns);
+        }
+        nextId = endId;
+
+        revalidate();
+        repaint();
+        long dropped = firstRow() - firstRowBefore;
+        if (atEnd) {
+            SwingUtilities.invokeLater(this::scrollToEnd);
+        } else if (dropped > 0 && getParent() instanceof JViewport) {
+            JViewport viewport = (JViewport) getParent();
+            Point position = viewport.getViewPosition();
+            position.y = (int) Math.max(0, position.y - dropped * rowHeight());
+            viewport.setViewPosition(position);
+        }
+    }
+
+    /**
+     * Rebuilds the view from the whole store, e.g. after it was cleared or
+     * backfilled, or after a filter, collapse or timestamp toggle.
+     */
+    public void rebuild() {
+        rebuildRows();
+        SwingUtilities.invokeLater(this::scrollToEnd);
+    }
+
+    /**
+     * Rebuilds the view after older lines were added at the head of the
+     * store, keeping the rows that were on top in view.
+     *
+     * @param count Number of lines added at the head
+     */
+    public void linesPrepended(int count) {
+        long previousFirstId = tabInfo.lineStore.firstId() + count;
+        rebuildRows();
+        int row;
+        if (indexed) {
+            int found = Arrays.binarySearch(rowIds, rowStart, rowEnd, previousFirstId);
+            row = (found >= 0 ? found : -found - 1) - rowStart;
+        } else {
+            row = count;
+        }
+        int y = tabInfo.textArea.getMargin().top + row * rowHeight();
+        SwingUtilities.invokeLater(() -> {
+            if (getParent() instanceof JViewport) {
+                ((JViewport) getParent()).setViewPosition(new Point(0, y));
+            }
+        });
+    }
+
+    private void rebuildRows() {
+        indexed = tabInfo.filterDuplicates || tabInfo.collapseRepeats;
+        rowIds = new long[indexed ? 1024 : 0];
+        rowRepeats = new int[rowIds.length];
+        rowStart = 0;
+        rowEnd = 0;
+        droppedRows = 0;
+        filter = tabInfo.filterDuplicates ? tabInfo.createDuplicateFilter() : null;
+        lastContent = null;
+        nextId = tabInfo.lineStore.firstId();
+        maxColumns = 0;
+        anchorRow = -1;
+        caretRow = -1;
+        linesAdded();
+    }
+
+    /** @return Number of rows shown */
+    public int rowCount() {
+        return indexed ? rowEnd - rowStart : tabInfo.lineStore.size();
+    }
+
+    /**
+     * Returns the text of a row as it is painted.
+     *
+     * @param row Row index, 0 being the top row
+     * @return The row's text, with timestamp and repeat counter as configured
+     */
+    public String rowText(int row) {
+        LineStore store = tabInfo.lineStore;
+        int index = indexed ? (int) (rowIds[rowStart + row] - store.firstId()) : row;
+        StringBuilder text = new StringBuilder();
+        if (tabInfo.showTimestamp) {
+            text.append('[').append(LogTimestamps.format(store.time(index))).append("] ");
+        }
+        text.append(store.line(index));
+        if (indexed && rowRepeats[rowStart + row] > 1) {
+            text.append(counterText(rowRepeats[rowStart + row]));
+        }
+        return text.toString();
+    }
+
+    /**
+     * Selects a range within one row and scrolls it into view, as used to
+     * show a search hit.
+     *
+     * @param row   Row index, 0 being the top row
+     * @param start First selected column
+     * @param end   Column just past the selection
+     */
+    public void select(int row, int start, int end) {
+        anchorRow = firstRow() + row;
+        anchorColumn = start;
+        caretRow = anchorRow;
+        caretColumn = end;
+        scrollRectToVisible(new Rectangle(0, tabInfo.textArea.getMargin().top + row * rowHeight(), 1, rowHeight()));
+        repaint();
+    }
+
+    /**
+     * Returns where the next search starts from: the selection, or the first
+     * visible row if nothing is selected.
+     *
+     * @param up Whether the search goes upward
+     * @return Row and column, as a two-element array
+     */
+    public int[] searchOrigin(boolean up) {
+        if (caretRow >= 0) {
+            long first = firstRow();
+            boolean anchorFirst = anchorRow < caretRow || (anchorRow == caretRow && anchorColumn <= caretColumn);
+            long row = up == anchorFirst ? anchorRow : caretRow;
+            int column = up == anchorFirst ? anchorColumn : caretColumn;
+            if (row >= first && row < first + rowCount()) {
+                return new int[] { (int) (row - first), column };
+            }
+        }
+        Rectangle visible = getVisibleRect();
+        return new int[] { Math.min(Math.max(0, rowCount() - 1), visible.y / rowHeight()), 0 };
+    }
+
+    /**
+     * Takes what a background search needs from the view: a copy of the store,
+     * the store id of every row when rows are indexed, and where to start,
+     * from the selection or else the top visible row.
+     *
+     * @param up Whether the search goes upward
+     * @return A snapshot that can be searched on another thread
+     */
+    public SearchSnapshot searchSnapshot(boolean up) {
+        int[] origin = searchOrigin(up);
+        long[] ids = indexed ? Arrays.copyOfRange(rowIds, rowStart, rowEnd) : null;
+        return new SearchSnapshot(tabInfo.lineStore.copy(), ids, origin[0], origin[1] - prefixColumns());
+    }
+
+    /**
+     * Selects a search match found in a snapshot, if the line is still shown
+     * and still matches there.
+     *
+     * @param id            Store id of the matching line
+     * @param column        Column of the match in the line's content
+     * @param term          The text that was found
+     * @param caseSensitive Whether case had to match
+     * @return false if the match no longer holds, e.g. because the line was
+     *         evicted or the rows were rebuilt meanwhile
+     */
+    public boolean selectMatch(long id, int column, String term, boolean caseSensitive) {
+        LineStore store = tabInfo.lineStore;
+        long index = id - store.firstId();
+        if (index < 0 || index >= store.size() || store.indexOf((int) index, term, column, caseSensitive) != column) {
+            return false;
+        }
+        int row;
+        if (indexed) {
+            int found = Arrays.binarySearch(rowIds, rowStart, rowEnd, id);
+            if (found < 0) {
+                return false;
+            }
+            row = found - rowStart;
+        } else {
+            row = (int) index;
+        }
+        int start = prefixColumns() + column;
+        select(row, start, start + term.length());
+        return true;
+    }
+
+    private int prefixColumns() {
+        return tabInfo.showTimestamp ? TimestampPrefix.LENGTH + 1 : 0;
+    }
+
+    /**
+     * The rows of a view as they were when a search started, searched on a
+     * background thread. Lines are matched where the store keeps them, so no
+     * row text is built; the timestamp and repeat counter drawn around a line
+     * are not searched.
+     */
+    public static final class SearchSnapshot {
+        /** Rows between checks for cancellation */
+        private static final int CANCEL_CHECK_ROWS = 4096;
+
+        private final LineStore store;
+        /** Store id of each row, or null if row i is store line i */
+        private final long[] ids;
+        private final int originRow;
+        private final int originColumn;
+
+        private SearchSnapshot(LineStore store, long[] ids, int originRow, int originColumn) {
+            this.store = store;
+            this.ids = ids;
+            this.originRow = originRow;
+            this.originColumn = originColumn;
+        }
+
+        /**
+         * Finds the next occurrence of a term from the search origin.
+         *
+         * @param term          The text to find
+         * @param up            Whether to search upward
+         * @param caseSensitive Whether case must match
+         * @param wrap          Whether to continue from the other end
+         * @param cancelled     Checked every few thousand rows; a search that
+         *                      is no longer wanted stops early
+         * @return The store id of the matching line and the column of the
+         *         match in its content, or null if none or cancelled
+         */
+        public long[] find(String term, boolean up, boolean caseSensitive, boolean wrap, BooleanSupplier cancelled) {
+            int rows = ids != null ? ids.length : store.size();
+            if (rows == 0 || term.isEmpty()) {
+                return null;
+            }
+            int row = Math.min(originRow, rows - 1);
+            int column = originColumn;
+            boolean wrapped = false;
+
+            for (int scanned = 1;; scanned++) {
+                int index = ids != null ? (int) (ids[row] - store.firstId()) : row;
+                int found = up ? store.lastIndexOf(index, term, column - term.length(), caseSensitive)
+                        : store.indexOf(index, term, column, caseSensitive);
+                if (found >= 0) {
+                    return new long[] { store.firstId() + index, found };
+                }
+                if (scanned % CANCEL_CHECK_ROWS == 0 && cancelled.getAsBoolean()) {
+                    return null;
+                }
+
+                row += up ? -1 : 1;
+                column = up ? Integer.MAX_VALUE : 0;
+                if (row < 0 || row >= rows) {
+                    if (!wrap || wrapped) {
+                        return null;
+                    }
+                    wrapped = true;
+                    row = up ? rows - 1 : 0;
+                }
+                if (wrapped && (up ? row < originRow : row > originRow)) {
+                    return null;
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the store index of the line at the start of the selection,
+     * which is where the clear-to-bottom escape cuts the log.
+     *
+     * @return The line's store index, or the store size if nothing is selected
+     */
+    public int caretLineIndex() {
+        long[] selection = selectionBounds();
+        LineStore store = tabInfo.lineStore;
+        if (selection == null && caretRow < 0) {
+            return store.size();
+        }
+        int row = (int) ((selection != null ? selection[0] : caretRow) - firstRow());
+        if (row < 0 || row >= rowCount()) {
+            return store.size();
+        }
+        return indexed ? (int) (rowIds[rowStart + row] - store.firstId()) : row;
+    }
+
+    /** Scrolls to the last row. */
+    public void scrollToEnd() {
+        scrollRectToVisible(new Rectangle(0, Math.max(0, getPreferredSize().height - 1), 1, 1));
+    }
+
+    /**
+     * @return true if the last row is visible, or the view is not scrollable
+     */
+    public boolean isAtEnd() {
+        Rectangle visible = getVisibleRect();
+        return visible.height == 0 || visible.y + visible.height >= getHeight() - rowHeight();
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        Font font = tabInfo.textArea.getFont();
+        FontMetrics fm = g.getFontMetrics(font);
+        Insets margin = tabInfo.textArea.getMargin();
+        Rectangle clip = g.getClipBounds();
+        int rowHeight = fm.getHeight();
+
+        g.setColor(tabInfo.textArea.getBackground());
+        g.fillRect(clip.x, clip.y, clip.width, clip.height);
+        g.setFont(font);
+
+        int rows = rowCount();
+        int first = Math.max(0, (clip.y - margin.top) / rowHeight);
+        int last = Math.min(rows - 1, (clip.y + clip.height - margin.top) / rowHeight);
+        long firstRow = firstRow();
+        long[] selection = selectionBounds();
+        Color foreground = tabInfo.textArea.getForeground();
+        Color selectionColor = tabInfo.textArea.getSelectionColor();
+
+        for (int row = first; row <= last; row++) {
+            String text = rowText(row);
+            int y = margin.top + row * rowHeight;
+            long absolute = firstRow + row;
+            if (selection != null && absolute >= selection[0] && absolute <= selection[2]) {
+                int from = absolute == selection[0] ? (int) Math.min(selection[1], text.length()) : 0;
+                int to = absolute == selection[2] ? (int) Math.min(selection[3], text.length()) : text.length();
+                int x1 = margin.left + fm.stringWidth(text.substring(0, from));
+                int x2 = absolute == selection[2] ? margin.left + fm.stringWidth(text.substring(0, to))
+                        : getWidth();
+                g.setColor(selectionColor);
+                g.fillRect(x1, y, Math.max(0, x2 - x1), rowHeight);
+            }
+            g.setColor(foreground);
+            g.drawString(text, margin.left, y + fm.getAscent());
+        }
+    }
+
+    @Override
+    public Dimension getPreferredSize() {
+        FontMetrics fm = getFontMetrics(tabInfo.textArea.getFont());
+        Insets margin = tabInfo.textArea.getMargin();
+        return new Dimension(margin.left + margin.right + maxColumns * fm.charWidth('m'),
+                margin.top + margin.bottom + rowCount() * fm.getHeight());
+    }
+
+    @Override
+    public Dimension getPreferredScrollableViewportSize() {
+        return getPreferredSize();
+    }
+
+    @Override
+    public int getScrollableUnitIncrement(Rectangle visibleRect, int orientation, int direction) {
+        return orientation == SwingConstants.VERTICAL ? rowHeight() : getFontMetrics(tabInfo.textArea.getFont())
+                .charWidth('m');
+    }
+
+    @Override
+    public int getScrollableBlockIncrement(Rectangle visibleRect, int orientation, int direction) {
+        return orientation == SwingConstants.VERTICAL ? Math.max(rowHeight(), visibleRect.height - rowHeight())
+                : visibleRect.width;
+    }
+
+    @Override
+    public boolean getScrollableTracksViewportWidth() {
+        return getParent() instanceof JViewport && getParent().getWidth() > getPreferredSize().width;
+    }
+
+    @Override
+    public boolean getScrollableTracksViewportHeight() {
+        return getParent() instanceof JViewport && getParent().getHeight() > getPreferredSize().height;
+    }
+
+    private int rowHeight() {
+        return getFontMetrics(tabInfo.textArea.getFont()).getHeight();
+    }
+
+    /** Absolute number of the top row, stable while rows are only appended or dropped from the head */
+    private long firstRow() {
+        return indexed ? droppedRows : tabInfo.lineStore.firstId();
+    }
+
+    private void addRow(long id) {
+        if (rowEnd == rowIds.length) {
+            if (rowStart > rowIds.length / 2) {
+                // Reuse the space of dropped rows before growing
+                System.arraycopy(rowIds, rowStart, rowIds, 0, rowEnd - rowStart);
+                System.arraycopy(rowRepeats, rowStart, rowRepeats, 0, rowEnd - rowStart);
+                rowEnd -= rowStart;
+                rowStart = 0;
+            } else {
+                rowIds = Arrays.copyOf(rowIds, Math.max(1024, rowIds.length * 2));
+                rowRepeats = Arrays.copyOf(rowRepeats, rowIds.length);
+            }
+        }
+        rowIds[rowEnd] = id;
+        rowRepeats[rowEnd] = 1;
+        rowEnd++;
+    }
+
+    private static String counterText(int repeats) {
+        return " [repeated " + repeats + " times]";
+    }
+
+    /** @return Absolute row and column under a point */
+    private long[] positionAt(Point point) {
+        FontMetrics fm = getFontMetrics(tabInfo.textArea.getFont());
+        Insets margin = tabInfo.textArea.getMargin();
+        int rows = rowCount();
+        if (rows == 0) {
+            return new long[] { firstRow(), 0 };
+        }
+        int row = Math.max(0, Math.min(rows - 1, (point.y - margin.top) / fm.getHeight()));
+        String text = rowText(row);
+        int x = margin.left;
+        int column = 0;
+        while (column < text.length()) {
+            int width = fm.charWidth(text.charAt(column));
+            if (x + width / 2 > point.x) {
+                break;
+            }
+            x += width;
+            column++;
+        }
+        return new long[] { firstRow() + row, column };
+    }
+
+    /** @return Start row, start column, end row and end column of the selection, or null */
+    private long[] selectionBounds() {
+        if (anchorRow < 0 || (anchorRow == caretRow && anchorColumn == caretColumn)) {
+            return null;
+        }
+        boolean anchorFirst = anchorRow < caretRow || (anchorRow == caretRow && anchorColumn < caretColumn);
+        return anchorFirst ? new long[] { anchorRow, anchorColumn, caretRow, caretColumn }
+                : new long[] { caretRow, caretColumn, anchorRow, anchorColumn };
+    }
+
+    private void selectAll() {
+        int rows = rowCount();
+        if (rows == 0) {
+            return;
+        }
+        anchorRow = firstRow();
+        anchorColumn = 0;
+        caretRow = firstRow() + rows - 1;
+        caretColumn = Integer.MAX_VALUE;
+        repaint();
+    }
+
+    private void copySelection() {
+        long[] selection = selectionBounds();
+        if (selection == null) {
+            return;
+        }
+        long first = firstRow();
+        int from = (int) Math.max(0, selection[0] - first);
+        int to = (int) Math.min(rowCount() - 1, selection[2] - first);
+        StringBuilder copied = new StringBuilder();
+        for (int row = from; row <= to; row++) {
+            String text = rowText(row);
+            int start = row == selection[0] - first ? (int) Math.min(selection[1], text.length()) : 0;
+            int end = row == selection[2] - first ? (int) Math.min(selection[3], text.length()) : text.length();
+            copied.append(text, start, end);
+            if (row < to) {
+                copied.append('\n');
+            }
+        }
+        Toolkit.getDefaultToolkit().getSystemClipboard().setContents(new StringSelection(copied.toString()), null);
+    }
+}
@@ -0,0 +1,46 @@
+package com.outputfetcher;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Exact duplicate filter that keeps the lines themselves in access order and
+ * evicts the least recently seen ones once the estimated size of all kept
+ * lines exceeds the memory budget.
+ */
+public class LruDuplicateFilter implements DuplicateFilter {
+    private final long memoryBytes;
+    private final LinkedHashMap<String, Boolean> seen = new LinkedHashMap<>(1024, 0.75f, true);
+    private long usedBytes;
+
+    /**
+     * @param memoryBytes Memory budget for the kept lines
+     */
+    public LruDuplicateFilter(long memoryBytes) {
+        this.memoryBytes = memoryBytes;
+    }
+
+    @Override
+    public boolean isDuplicate(String content) {
+        if (seen.get(content) != null) {
+            return true;
+        }
+        seen.put(content, Boolean.TRUE);
+        usedBytes += DuplicateFilter.estimateEntryBytes(content);
+
+        Iterator<Map.Entry<String, Boolean>> it = seen.entrySet().iterator();
+        while (usedBytes > memoryBytes && it.hasNext()) {
+            String eldest = it.next().getKey();
+            it.remove();
+            usedBytes -= DuplicateFilter.estimateEntryBytes(eldest);
+        }
+        return false;
+    }
+
+    @Override
+    public void clear() {
+        seen.clear();
+        usedBytes = 0;
+    }
+}
@@ -0,0 +1,324 @@
+package com.outputfetcher;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+/**
+ * Central scheduler that polls every monitored tab from one bounded pool.
+ *
+ * Instead of one sleeping platform thread per tab, each tab gets a small
+ * self-rescheduling task on a shared ScheduledThreadPoolExecutor with
+ * POLL_THREADS workers, so hundreds of watched files need only a handful of
+ * threads. The scheduler also:
+ * - Adapts each tab's interval to its activity: every poll that finds no new
+ * content doubles the delay up to the tab's pollMaxInterval, and the first
+ * poll that sees growth snaps it back to pollMinInterval
+ * - Limits concurrent fetches per host to MAX_FETCHES_PER_HOST; a task that
+ * finds its host busy retries shortly instead of blocking a worker
+ * - Puts off polls of a host whose SSH connect is still pending, so an
+ * unreachable host ties up only the one worker doing the connect instead
+ * of every worker that polls a tab on it
+ * - Jitters the first poll of each tab across its minimum interval so tabs started
+ * together (e.g. on auto-connect) do not hit the hosts in lockstep
+ * - Runs manual refreshes on the same pool under the same host limits
+ * - Polls by priority: the visible tab between its minimum and maximum
+ * interval, background tabs no faster than their pollBackgroundInterval, and
+ * every tab no faster than LOW_POWER_INTERVAL_MS while the window is
+ * minimized. A tab that becomes visible is fetched at once to catch up
+ */
+public class PollScheduler {
+    /** Worker threads shared by all tabs */
+    private static final int POLL_THREADS = 8;
+
+    /** Maximum number of fetches running against one host at a time */
+    private static final int MAX_FETCHES_PER_HOST = 4;
+
+    /** Base delay before retrying when the host's fetch limit is reached */
+    private static final long HOST_BUSY_RETRY_MS = 100;
+
+    /** Base delay before retrying while the host is being connected */
+    private static final long HOST_CONNECTING_RETRY_MS = 1000;
+
+    /** Fastest interval for every tab while the window is minimized */
+    private static final long LOW_POWER_INTERVAL_MS = 60000;
+
+    /**
+     * How eagerly a tab is polled.
+     */
+    public enum Priority {
+        /** The selected tab of a shown window */
+        VISIBLE,
+        /** A tab that is not selected */
+        BACKGROUND,
+        /** Any tab while the window is minimized */
+        LOW_POWER
+    }
+
+    private final ScheduledThreadPoolExecutor executor;
+    private final Map<TabInfo, PollTask> tasks = new ConcurrentHashMap<>();
+    private final Map<String, Semaphore> hostPermits = new ConcurrentHashMap<>();
+    private final Predicate<TabInfo> fetcher;
+    private final Predicate<TabInfo> hostConnecting;
+    private volatile TabInfo visibleTab;
+    private volatile boolean minimized;
+
+    /**
+     * Creates a scheduler that polls tabs with the given fetch function.
+     *
+     * @param fetcher        Performs one fetch for a tab and returns whether
+     *                       new content was found; called on a pool thread
+     * @param hostConnecting Tells whether a tab's host is being connected
+     *                       right now, in which case its poll is put off
+     */
+    public PollScheduler(Predicate<TabInfo> fetcher, Predicate<TabInfo> hostConnecting) {
+        this.fetcher = fetcher;
+        this.hostConnecting = hostConnecting;
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = new ScheduledThreadPoolExecutor(POLL_THREADS, r -> {
+            Thread t = new Thread(r, "log-poller-" + threadCount.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        executor.setRemoveOnCancelPolicy(true);
+    }
+
+    /**
+     * Starts polling a tab, replacing any polling already scheduled for it.
+     * The first poll runs after a random delay within the tab's minimum
+     * interval.
+     *
+     * @param tabInfo The tab to poll
+     */
+    public void start(TabInfo tabInfo) {
+        stop(tabInfo);
+        PollTask task = new PollTask(tabInfo, true);
+        tasks.put(tabInfo, task);
+        task.schedule(ThreadLocalRandom.current().nextLong(task.interval));
+    }
+
+    /**
+     * Stops polling a tab. A fetch already in progress is allowed to finish.
+     *
+     * @param tabInfo The tab to stop polling
+     */
+    public void stop(TabInfo tabInfo) {
+        PollTask task = tasks.remove(tabInfo);
+        if (task != null) {
+            task.cancel();
+        }
+    }
+
+    /**
+     * Fetches a tab as soon as possible. A tab that is being polled has its
+     * next poll pulled forward; otherwise a one-off fetch is queued.
+     *
+     * @param tabInfo The tab to fetch
+     */
+    public void pollNow(TabInfo tabInfo) {
+        PollTask task = tasks.get(tabInfo);
+        if (task != null) {
+            task.runNow();
+        } else {
+            new PollTask(tabInfo, false).schedule(0);
+        }
+    }
+
+    /**
+     * Sets the tab the user is looking at. If it changed, the new tab is
+     * polled at once so it catches up with what it missed while it was in
+     * the background.
+     *
+     * @param tabInfo The selected tab, or null if there is none
+     */
+    public void setVisibleTab(TabInfo tabInfo) {
+        TabInfo previous = visibleTab;
+        visibleTab = tabInfo;
+        if (tabInfo != null && tabInfo != previous && !minimized) {
+            catchUp(tabInfo);
+        }
+    }
+
+    /**
+     * Sets whether the window is minimized, which drops every tab to the
+     * low-power interval. Restoring the window polls the visible tab at once.
+     *
+     * @param minimized Whether the window is minimized
+     */
+    public void setMinimized(boolean minimized) {
+        boolean wasMinimized = this.minimized;
+        this.minimized = minimized;
+        TabInfo tabInfo = visibleTab;
+        if (wasMinimized && !minimized && tabInfo != null) {
+            catchUp(tabInfo);
+        }
+    }
+
+    /**
+     * @param tabInfo A tab
+     * @return How eagerly the tab is polled right now
+     */
+    public Priority priorityOf(TabInfo tabInfo) {
+        if (minimized) {
+            return Priority.LOW_POWER;
+        }
+        return tabInfo == visibleTab ? Priority.VISIBLE : Priority.BACKGROUND;
+    }
+
+    private void catchUp(TabInfo tabInfo) {
+        PollTask task = tasks.get(tabInfo);
+        if (task != null) {
+            task.catchUp();
+        }
+    }
+
+    /**
+     * Cancels all polling and stops the worker threads.
+     */
+    public void shutdown() {
+        for (PollTask task : tasks.values()) {
+            task.cancel();
+        }
+        tasks.clear();
+        executor.shutdownNow();
+    }
+
+    private static String hostKey(TabInfo tabInfo) {
+        return tabInfo.host + ":" + tabInfo.port;
+    }
+
+    /**
+     * A tab's poll. Runs one fetch under its host's permit and, when
+     * repeating, schedules the next run after the fetch completes so slow
+     * fetches never pile up. The delay backs off while the file is idle,
+     * within bounds that depend on the tab's priority. Every schedule bumps a
+     * generation counter and only the run of the latest generation proceeds,
+     * so pulling a poll forward can never fork a second polling chain.
+     */
+    private final class PollTask {
+        private final TabInfo tabInfo;
+        private final boolean repeating;
+        private ScheduledFuture<?> future;
+        private long generation;
+        private boolean running;
+        private boolean rerunRequested;
+        private boolean cancelled;
+        private long interval;
+
+        PollTask(TabInfo tabInfo, boolean repeating) {
+            this.tabInfo = tabInfo;
+            this.repeating = repeating;
+            this.interval = minInterval();
+        }
+
+        private void run(long scheduledGeneration) {
+            synchronized (this) {
+                if (cancelled || scheduledGeneration != generation) {
+                    return;
+                }
+                running = true;
+            }
+
+            if (hostConnecting.test(tabInfo)) {
+                // Another worker is connecting to the host; waiting for it here would block this one too
+                synchronized (this) {
+                    running = false;
+                    schedule(HOST_CONNECTING_RETRY_MS
+                            + ThreadLocalRandom.current().nextLong(HOST_CONNECTING_RETRY_MS));
+                }
+                return;
+            }
+
+            Semaphore permits = hostPermits.computeIfAbsent(hostKey(tabInfo),
+                    k -> new Semaphore(MAX_FETCHES_PER_HOST));
+            if (!permits.tryAcquire()) {
+                synchronized (this) {
+                    running = false;
+                    schedule(HOST_BUSY_RETRY_MS + ThreadLocalRandom.current().nextLong(HOST_BUSY_RETRY_MS));
+                }
+                return;
+            }
+
+            boolean changed = false;
+            try {
+                changed = fetcher.test(tabInfo);
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+            } finally {
+                permits.release();
+            }
+
+            synchronized (this) {
+                running = false;
+                // Clamped both ways, so a priority change takes effect on the next poll
+                interval = changed ? minInterval()
+                        : Math.max(minInterval(), Math.min(interval * 2, maxInterval()));
+                if (repeating) {
+                    schedule(rerunRequested ? 0 : interval);
+                }
+                rerunRequested = false;
+            }
+        }
+
+        synchronized void schedule(long delayMs) {
+            if (cancelled || executor.isShutdown()) {
+                return;
+            }
+            if (future != null) {
+                future.cancel(false);
+            }
+            long scheduledGeneration = ++generation;
+            future = executor.schedule(() -> run(scheduledGeneration), delayMs, TimeUnit.MILLISECONDS);
+        }
+
+        /**
+         * Pulls the pending poll forward. If a poll is running right now, the
+         * next one starts immediately after it instead.
+         */
+        synchronized void runNow() {
+            if (running) {
+                rerunRequested = true;
+            } else {
+                schedule(0);
+            }
+        }
+
+        /**
+         * Polls now and restarts the backoff from the fastest interval of the
+         * tab's current priority.
+         */
+        synchronized void catchUp() {
+            interval = minInterval();
+            runNow();
+        }
+
+        private long minInterval() {
+            long min = Math.max(1, tabInfo.pollMinInterval);
+            switch (priorityOf(tabInfo)) {
+                case BACKGROUND:
+                    return Math.max(min, tabInfo.pollBackgroundInterval);
+                case LOW_POWER:
+                    return Math.max(min, LOW_POWER_INTERVAL_MS);
+                default:
+                    return min;
+            }
+        }
+
+        private long maxInterval() {
+            return Math.max(minInterval(), tabInfo.pollMaxInterval);
+        }
+
+        synchronized void cancel() {
+            cancelled = true;
+            if (future != null) {
+                future.cancel(false);
+            }
+        }
+    }
+}
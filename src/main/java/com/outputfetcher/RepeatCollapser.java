@@ -0,0 +1,110 @@
+package com.outputfetcher;
+
+/**
+ * Tracks the last line shown in a tab so that consecutive identical lines can
+ * be collapsed into one, syslog style.
+ *
+ * Instead of appending a repeat, the viewer rewrites a short counter after the
+ * first occurrence, e.g. "health check ok [repeated 42 times]". Only the last
+ * line's content, its repeat count and the document position of its counter
+ * are kept, so the state is constant per tab no matter how long the log runs.
+ * Any change to the document other than appending at the end must call
+ * {@link #reset()} or {@link #shift(int)} to keep the position valid.
+ *
+ * Not thread-safe. A tab's collapser is used on the EDT, except while a
+ * fresh one is filled during a background re-render.
+ */
+public class RepeatCollapser {
+    private String lastContent;
+    private int count;
+    private int counterStart = -1;
+    private int counterLength;
+
+    /**
+     * Checks whether a line repeats the last shown one, counting it if so.
+     *
+     * @param content The line content without its timestamp
+     * @return true if the line is a consecutive repeat and should only update
+     *         the counter
+     */
+    public boolean isRepeat(String content) {
+        if (counterStart < 0 || !content.equals(lastContent)) {
+            return false;
+        }
+        count++;
+        return true;
+    }
+
+    /**
+     * Records a line that was shown as a new line.
+     *
+     * @param content      The line content without its timestamp
+     * @param counterStart Document offset just past the line's content, where
+     *                     its counter goes once it repeats
+     */
+    public void shown(String content, int counterStart) {
+        lastContent = content;
+        count = 1;
+        this.counterStart = counterStart;
+        counterLength = 0;
+    }
+
+    /**
+     * Returns the counter text for the current repeat count. The caller puts
+     * it in place of the {@link #getCounterLength()} characters at
+     * {@link #getCounterStart()} and then reports its length through
+     * {@link #counterWritten(int)}.
+     *
+     * @return The counter text, e.g. " [repeated 3 times]"
+     */
+    public String counterText() {
+        return " [repeated " + count + " times]";
+    }
+
+    /**
+     * Records the length of the counter that was just written.
+     *
+     * @param length The length of the counter text now in the document
+     */
+    public void counterWritten(int length) {
+        counterLength = length;
+    }
+
+    /** @return Document offset where the current counter starts */
+    public int getCounterStart() {
+        return counterStart;
+    }
+
+    /** @return Length of the counter currently in the document */
+    public int getCounterLength() {
+        return counterLength;
+    }
+
+    /**
+     * Moves the tracked position after text was inserted or removed before
+     * it. If the last line itself was removed, the state is reset.
+     *
+     * @param delta Number of characters inserted ahead of the last line, or
+     *              minus the number removed
+     */
+    public void shift(int delta) {
+        if (counterStart < 0) {
+            return;
+        }
+        counterStart += delta;
+        if (counterStart < 0) {
+            reset();
+        }
+    }
+
+    /**
+     * Forgets the last line, e.g. after the document was cleared or
+     * re-rendered. The next line is always shown.
+     */
+    public void reset() {
+        lastContent = null;
+        count = 0;
+        counterStart = -1;
+        counterLength = 0;
+    }
+}
@@ -0,0 +1,108 @@
+package com.outputfetcher;
+
+import java.util.Arrays;
+
+/**
+ * LineStore ids of the lines shown in a tab's document, one per document
+ * line in document order.
+ *
+ * Document lines and stored lines only line up one to one while every stored
+ * line is shown exactly once. Duplicate filtering and repeat collapsing hide
+ * stored lines, the document and the store are trimmed at different points,
+ * and backfilled lines may be shown while the store is full. Mapping a
+ * document position back to the store therefore goes through the id
+ * recorded when each line was rendered.
+ *
+ * Ids are kept in a long[] between a start and an end index, so appending,
+ * dropping lines from either end and prepending are all cheap.
+ *
+ * Not thread-safe. A tab's ids are used on the EDT, except while a fresh set
+ * is filled during a background re-render.
+ */
+public class RowIds {
+    private long[] ids = new long[1024];
+    private int start;
+    private int end;
+
+    /** @return Number of document lines with a recorded id */
+    public int size() {
+        return end - start;
+    }
+
+    /**
+     * @param row Document line index
+     * @return The store id of the line
+     */
+    public long get(int row) {
+        if (row < 0 || row >= size()) {
+            throw new IndexOutOfBoundsException("Row " + row + " of " + size());
+        }
+        return ids[start + row];
+    }
+
+    /**
+     * Records a line appended to the document.
+     *
+     * @param id The line's store id
+     */
+    public void add(long id) {
+        if (end == ids.length) {
+            if (start > ids.length / 2) {
+                // Mostly trimmed from the head; slide down instead of growing
+                System.arraycopy(ids, start, ids, 0, end - start);
+                end -= start;
+                start = 0;
+            } else {
+                ids = Arrays.copyOf(ids, ids.length * 2);
+            }
+        }
+        ids[end++] = id;
+    }
+
+    /**
+     * Records lines inserted at the top of the document.
+     *
+     * @param prepended Store ids of the new lines, in document order
+     * @param count     Number of ids to take from the start of the array
+     */
+    public void addFirst(long[] prepended, int count) {
+        if (start < count) {
+            // Leave room at the head for further backfills and at the tail for appends
+            int size = size();
+            int room = count + Math.max(1024, size);
+            long[] grown = new long[room + size + Math.max(1024, size)];
+            System.arraycopy(ids, start, grown, room, size);
+            ids = grown;
+            start = room;
+            end = room + size;
+        }
+        start -= count;
+        System.arraycopy(prepended, 0, ids, start, count);
+    }
+
+    /**
+     * Forgets lines removed from the top of the document.
+     *
+     * @param count Number of document lines removed
+     */
+    public void removeFirst(int count) {
+        start += Math.min(Math.max(0, count), size());
+    }
+
+    /**
+     * Forgets every line from a document line on.
+     *
+     * @param rows Number of document lines kept
+     */
+    public void truncate(int rows) {
+        end = start + Math.min(Math.max(0, rows), size());
+    }
+
+    /**
+     * Forgets every line, e.g. after the document was cleared.
+     */
+    public void clear() {
+        start = 0;
+        end = 0;
+    }
+}
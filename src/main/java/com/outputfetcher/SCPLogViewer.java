@@ -4,6 +4,7 @@ import java.awt.BorderLayout;
 import java.awt.Color;
 import java.awt.Component;
 import java.awt.Container;
+import java.awt.Cursor;
 import java.awt.Dimension;
 import java.awt.FlowLayout;
 import java.awt.Font;
@@ -18,17 +19,20 @@ import java.awt.event.ActionListener;
 import java.awt.event.InputEvent;
 import java.awt.event.KeyEvent;
 import java.awt.event.KeyListener;
-import java.io.BufferedReader;
 import java.io.File;
 import java.io.IOException;
-import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
-import java.util.Base64;
 import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
 
 import javax.swing.BorderFactory;
 import javax.swing.ButtonGroup;
@@ -57,12 +61,16 @@ import javax.swing.JToolBar;
 import javax.swing.KeyStroke;
 import javax.swing.SwingUtilities;
 import javax.swing.SwingWorker;
+import javax.swing.Timer;
 import javax.swing.UIManager;
+import javax.swing.text.AbstractDocument;
+import javax.swing.text.BadLocationException;
+import javax.swing.text.Document;
+import javax.swing.text.Element;
 
 import org.json.JSONException;
 
 import com.jcraft.jsch.ChannelExec;
-import com.jcraft.jsch.JSch;
 import com.jcraft.jsch.JSchException;
 import com.jcraft.jsch.Session;
 
@@ -111,11 +119,14 @@ public class SCPLogViewer {
     private static JTextField searchField;
 
     /** Checkboxes for various log viewing options */
-    private static JCheckBox duplicateFilterBox, wordWrapBox, showTimestampBox;
+    private static JCheckBox duplicateFilterBox, collapseRepeatsBox, wordWrapBox, showTimestampBox;
 
     /** Checkboxes for search options */
     private static JCheckBox caseSensitiveBox, wrapAroundCheckBox;
 
+    /** Search in progress, cancelled when a newer search starts */
+    private static SwingWorker<?, Void> searchWorker;
+
     /** Maximum number of tabs that can be opened */
     private static final int MAX_TABS = 100;
 
@@ -138,6 +149,37 @@ public class SCPLogViewer {
     /** Flag indicating if dark mode is enabled */
     private static boolean isDarkMode = false;
 
+    /** Long-lived SSH sessions shared by all tabs, keyed by user, host and port */
+    private static final SessionPool sessionPool = new SessionPool();
+
+    /** Reads new log content with a single framed exec command per poll */
+    private static final LogSource execLogSource = new ExecLogSource();
+
+    /** Interval at which received lines are drained onto the EDT, about one frame */
+    private static final int INGEST_FRAME_MS = 16;
+
+    /** UI lag at or above which it is shown next to the last update time */
+    private static final long UI_LAG_REPORT_MS = 100;
+
+    /** Timeout for the SSH handshake of each auto-connect tab at startup */
+    private static final int AUTO_CONNECT_TIMEOUT_MS = 5000;
+
+    /** Bytes of older content fetched per backfill when scrolling to the top */
+    private static final long BACKFILL_CHUNK_BYTES = 256 * 1024;
+
+    /** Characters rendered before each insert into a document being rebuilt */
+    private static final int RERENDER_CHUNK_CHARS = 64 * 1024;
+
+    /**
+     * Share of the scrollback limit a document may exceed before its head is
+     * trimmed, so lines are evicted in batches rather than on every append
+     */
+    private static final double SCROLLBACK_SLACK = 0.1;
+
+    /** Polls all POLL and SFTP tabs from one bounded thread pool */
+    private static final PollScheduler pollScheduler = new PollScheduler(SCPLogViewer::fetchLogFile,
+            sessionPool::isConnecting);
+
     public static void main(String[] args) {
         SwingUtilities.invokeLater(() -> {
             try {
@@ -188,6 +230,7 @@ public class SCPLogViewer {
         JPanel tabPanel = new JPanel(new BorderLayout());
         tabPanel.setBackground(isDarkMode ? DARK_MODE_BACKGROUND : Color.WHITE);
         tabPanel.add(tabbedPane, BorderLayout.CENTER);
+        tabbedPane.addChangeListener(e -> updateTabVisibility());
 
         frame.add(tabPanel);
 
@@ -209,6 +252,12 @@ public class SCPLogViewer {
 
         applyTheme(frame.getContentPane(), isDarkMode);
         setupHotkeys(frame);
+
+        // Move queued lines onto the screen once per frame
+        Timer ingestTimer = new Timer(INGEST_FRAME_MS, e -> drainIngestQueues());
+        ingestTimer.setCoalesce(true);
+        ingestTimer.start();
+
         handleAutoConnect();
 
         return frame;
@@ -253,9 +302,26 @@ public class SCPLogViewer {
         tab.backgroundColor = config.backgroundColor;
         tab.currentFont = config.font;
         tab.filterDuplicates = config.filterDuplicates;
+        tab.collapseRepeats = config.collapseRepeats;
         tab.wordWrap = config.wordWrap;
         tab.showTimestamp = config.showTimestamp;
         tab.autoConnect = config.autoConnect;
+        tab.sourceMode = config.sourceMode;
+        tab.pollMinInterval = config.pollMinInterval;
+        tab.pollMaxInterval = config.pollMaxInterval;
+        tab.pollBackgroundInterval = config.pollBackgroundInterval;
+        tab.drainRotated = config.drainRotated;
+        tab.maxBatchLines = config.maxBatchLines;
+        tab.partialLineFlushMs = config.partialLineFlushMs;
+        tab.scrollbackLines = config.scrollbackLines;
+        tab.scrollbackBytes = config.scrollbackBytes;
+        tab.lineStore.setLimits(tab.scrollbackLines, tab.scrollbackBytes);
+        tab.virtualView = config.virtualView;
+        tab.dedupStrategy = config.dedupStrategy;
+        tab.dedupMemoryKb = config.dedupMemoryKb;
+        tab.dedupWindowSeconds = config.dedupWindowSeconds;
+        tab.dedupFalsePositiveRate = config.dedupFalsePositiveRate;
+        tab.duplicateFilter = tab.createDuplicateFilter();
         tab.tabName = config.tabName != null ? config.tabName : "Log " + (tabs.size() + 1);
         tab.textArea.setFont(tab.currentFont);
         tab.textArea.setForeground(tab.textColor);
@@ -550,16 +616,54 @@ public class SCPLogViewer {
         tabInfo.lastUpdateLabel = new JLabel("Last Update: Never");
         tabInfo.lastUpdateLabel.setForeground(isDarkMode ? DARK_MODE_TEXT : new Color(100, 100, 100));
 
+        // Shown while the user has scrolled away from new lines; clicking it follows again
+        tabInfo.newLinesLabel = new JLabel();
+        tabInfo.newLinesLabel.setFont(tabInfo.newLinesLabel.getFont().deriveFont(Font.BOLD));
+        tabInfo.newLinesLabel.setCursor(Cursor.getPredefinedCursor(Cursor.HAND_CURSOR));
+        tabInfo.newLinesLabel.setVisible(false);
+        tabInfo.newLinesLabel.addMouseListener(new java.awt.event.MouseAdapter() {
+            @Override
+            public void mouseClicked(java.awt.event.MouseEvent e) {
+                followTail(tabInfo);
+            }
+        });
+        JPanel updatePanel = new JPanel(new BorderLayout());
+        updatePanel.setOpaque(false);
+        updatePanel.add(tabInfo.lastUpdateLabel, BorderLayout.CENTER);
+        updatePanel.add(tabInfo.newLinesLabel, BorderLayout.EAST);
+
         statusPanel.add(tabInfo.statusLabel);
-        statusPanel.add(tabInfo.lastUpdateLabel);
+        statusPanel.add(updatePanel);
 
         // Text area setup
         setupTextArea(tabInfo);
         JScrollPane scrollPane = new JScrollPane(tabInfo.textArea);
+        tabInfo.scrollPane = scrollPane;
+        if (tabInfo.virtualView) {
+            showVirtualView(tabInfo, true);
+        }
         scrollPane.setBorder(
                 BorderFactory.createLineBorder(isDarkMode ? new Color(60, 60, 60) : new Color(200, 200, 200)));
         scrollPane.getVerticalScrollBar().setUnitIncrement(16); // Smoother scrolling
 
+        scrollPane.getVerticalScrollBar().addAdjustmentListener(e -> {
+            JScrollBar vbar = (JScrollBar) e.getAdjustable();
+            // Scrolling up stops following new lines and scrolling back to the end resumes it.
+            // Content growing or shrinking under an unmoved view changes neither.
+            boolean atEnd = e.getValue() >= vbar.getMaximum() - vbar.getVisibleAmount();
+            if (atEnd && !tabInfo.followTail && e.getValue() != tabInfo.lastScrollValue) {
+                followTail(tabInfo);
+            } else if (!atEnd && tabInfo.followTail && e.getValue() < tabInfo.lastScrollValue) {
+                stopFollowingTail(tabInfo);
+            }
+            tabInfo.lastScrollValue = e.getValue();
+
+            // Load older content when the user drags or pages to the top
+            if (e.getValue() == vbar.getMinimum() && vbar.getMaximum() > vbar.getVisibleAmount()) {
+                backfillLog(tabInfo);
+            }
+        });
+
         // Add tooltip to show fast scrolling information
         scrollPane.setToolTipText("Alt+Scroll or Alt+Arrow keys for fast scrolling");
 
@@ -579,6 +683,36 @@ public class SCPLogViewer {
         return tabPanel;
     }
 
+    /**
+     * Switches a tab between the text area and the virtualized LogViewport.
+     *
+     * Entering the virtual view drops the text area's document, which the
+     * view does not need, and cancels any re-render in progress; the viewport
+     * is built from the line store. Leaving it re-renders the text area from
+     * the store. Must be called on the EDT.
+     *
+     * @param tabInfo The tab to switch
+     * @param virtual Whether to show the virtual view
+     */
+    private static void showVirtualView(TabInfo tabInfo, boolean virtual) {
+        tabInfo.virtualView = virtual;
+        if (virtual) {
+            if (tabInfo.logViewport == null) {
+                tabInfo.logViewport = new LogViewport(tabInfo);
+            }
+            tabInfo.renderGeneration++;
+            tabInfo.rerendering = false;
+            tabInfo.textArea.setDocument(new LogDocument());
+            tabInfo.rowIds.clear();
+            tabInfo.repeatCollapser.reset();
+            tabInfo.scrollPane.setViewportView(tabInfo.logViewport);
+            tabInfo.logViewport.rebuild();
+        } else {
+            tabInfo.scrollPane.setViewportView(tabInfo.textArea);
+            rerenderFromStore(tabInfo);
+        }
+    }
+
     /**
      * Sets up the text area for a given tab.
      *
@@ -612,6 +746,9 @@ public class SCPLogViewer {
                     int scrollAmount = e.getWheelRotation() * vbar.getUnitIncrement();
                     vbar.setValue(vbar.getValue() + scrollAmount);
                 }
+                if (e.getWheelRotation() < 0 && vbar.getValue() == vbar.getMinimum()) {
+                    backfillLog(tabInfo);
+                }
                 e.consume();
             }
         });
@@ -620,6 +757,11 @@ public class SCPLogViewer {
         tabInfo.textArea.addKeyListener(new KeyListener() {
             @Override
             public void keyPressed(KeyEvent e) {
+                if (e.getKeyCode() == KeyEvent.VK_END && !e.isShiftDown()) {
+                    followTail(tabInfo);
+                    e.consume();
+                    return;
+                }
                 if (e.isAltDown()) {
                     Container parent = tabInfo.textArea.getParent();
                     while (parent != null && !(parent instanceof JScrollPane)) {
@@ -827,15 +969,9 @@ public class SCPLogViewer {
 
             // Start or stop monitoring based on auto-connect state
             if (tabInfo.autoConnect) {
-                if (tabInfo.monitoringThread != null) {
-                    tabInfo.monitoringThread.interrupt();
-                }
                 startFileMonitoring(tabInfo);
             } else {
-                if (tabInfo.monitoringThread != null) {
-                    tabInfo.monitoringThread.interrupt();
-                    tabInfo.monitoringThread = null;
-                }
+                stopFileMonitoring(tabInfo);
             }
 
             try {
@@ -852,15 +988,9 @@ public class SCPLogViewer {
             try {
                 saveConfiguration();
                 if (tabInfo.autoConnect) {
-                    if (tabInfo.monitoringThread != null) {
-                        tabInfo.monitoringThread.interrupt();
-                    }
                     startFileMonitoring(tabInfo);
                 } else {
-                    if (tabInfo.monitoringThread != null) {
-                        tabInfo.monitoringThread.interrupt();
-                        tabInfo.monitoringThread = null;
-                    }
+                    stopFileMonitoring(tabInfo);
                 }
             } catch (JSONException ex) {
                 JOptionPane.showMessageDialog(null, "Error saving configuration: " + ex.getMessage());
@@ -1164,7 +1294,10 @@ public class SCPLogViewer {
      * or backward
      * from the current caret position, depending on the search direction specified.
      * The search is performed asynchronously using a SwingWorker to prevent UI
-     * freezing.
+     * freezing. The worker scans the document in place with TextSearch instead of
+     * copying its text, or for the virtual view matches the stored lines in
+     * place; the caret, selection and search options are read here on the EDT,
+     * and starting a new search cancels one still running.
      * 
      * Features:
      * - Case sensitive/insensitive search based on checkbox selection
@@ -1177,6 +1310,16 @@ public class SCPLogViewer {
      *                 (forward)
      */
     private static void findNextOrPrevious(boolean searchUp) {
+        findNextOrPrevious(searchUp, true);
+    }
+
+    /**
+     * @param searchUp   true to search upward (backward), false to search
+     *                   downward (forward)
+     * @param retryMoved Whether to search again if the text moved under the
+     *                   match before it could be selected
+     */
+    private static void findNextOrPrevious(boolean searchUp, boolean retryMoved) {
         TabInfo currentTab = getCurrentTab();
         if (currentTab == null)
             return;
@@ -1185,51 +1328,58 @@ public class SCPLogViewer {
         if (searchTerm.isEmpty())
             return;
 
-        SwingWorker<Integer, Void> worker = new SwingWorker<Integer, Void>() {
-            @Override
-            protected Integer doInBackground() {
-                JTextArea textArea = currentTab.textArea;
-                String text = textArea.getText();
-                int caretPos = textArea.getCaretPosition();
+        if (searchWorker != null) {
+            searchWorker.cancel(false);
+            searchWorker = null;
+        }
 
-                boolean caseSensitive = caseSensitiveBox.isSelected();
-                String searchText = caseSensitive ? text : text.toLowerCase();
-                String searchQuery = caseSensitive ? searchTerm : searchTerm.toLowerCase();
+        boolean caseSensitive = caseSensitiveBox.isSelected();
+        boolean wrapAround = wrapAroundCheckBox.isSelected();
 
-                int foundPos = -1;
-                if (searchUp) {
-                    // upward
-                    int startSearchPos = Math.min(caretPos, searchText.length());
+        if (currentTab.virtualView) {
+            findInViewport(currentTab, searchTerm, searchUp, caseSensitive, wrapAround, retryMoved);
+            return;
+        }
 
-                    // If we have a selection, start from the beginning of the selection
-                    if (textArea.getSelectionStart() < textArea.getSelectionEnd() &&
-                            textArea.getSelectionEnd() == caretPos) {
-                        startSearchPos = textArea.getSelectionStart();
-                    }
+        JTextArea textArea = currentTab.textArea;
+        Document doc = textArea.getDocument();
+        int caretPos = textArea.getCaretPosition();
+        int startSearchPos;
+        if (searchUp) {
+            // If we have a selection, start from the beginning of the selection
+            startSearchPos = caretPos;
+            if (textArea.getSelectionStart() < textArea.getSelectionEnd() &&
+                    textArea.getSelectionEnd() == caretPos) {
+                startSearchPos = textArea.getSelectionStart();
+            }
+        } else {
+            startSearchPos = textArea.getSelectionEnd();
+            if (startSearchPos == textArea.getSelectionStart()) {
+                startSearchPos = caretPos;
+            }
+        }
+        int searchFrom = startSearchPos;
 
+        SwingWorker<Integer, Void> worker = new SwingWorker<Integer, Void>() {
+            @Override
+            protected Integer doInBackground() {
+                int foundPos;
+                if (searchUp) {
                     // Search upward from the current position
-                    if (startSearchPos > 0) {
-                        foundPos = searchText.lastIndexOf(searchQuery, startSearchPos - 1);
-                    }
+                    foundPos = TextSearch.lastIndexOf(doc, searchTerm, searchFrom, caseSensitive,
+                            this::isCancelled);
 
                     // If not found and wrap around is enabled, search from the end
-                    if (foundPos == -1 && wrapAroundCheckBox.isSelected()) {
-                        foundPos = searchText.lastIndexOf(searchQuery);
+                    if (foundPos == -1 && wrapAround && !isCancelled()) {
+                        foundPos = TextSearch.lastIndexOf(doc, searchTerm, Integer.MAX_VALUE, caseSensitive,
+                                this::isCancelled);
                     }
                 } else {
-                    // position
-                    int startSearchPos = textArea.getSelectionEnd();
-                    if (startSearchPos == textArea.getSelectionStart()) {
-                        startSearchPos = caretPos;
-                    }
-
-                    if (startSearchPos < searchText.length()) {
-                        foundPos = searchText.indexOf(searchQuery, startSearchPos);
-                    }
+                    foundPos = TextSearch.indexOf(doc, searchTerm, searchFrom, caseSensitive, this::isCancelled);
 
                     // If not found and wrap around is enabled, search from the beginning
-                    if (foundPos == -1 && wrapAroundCheckBox.isSelected()) {
-                        foundPos = searchText.indexOf(searchQuery);
+                    if (foundPos == -1 && wrapAround && !isCancelled()) {
+                        foundPos = TextSearch.indexOf(doc, searchTerm, 0, caseSensitive, this::isCancelled);
                     }
                 }
 
@@ -1238,15 +1388,36 @@ public class SCPLogViewer {
 
             @Override
             protected void done() {
+                if (isCancelled()) {
+                    return;
+                }
+                if (searchWorker == this) {
+                    searchWorker = null;
+                }
                 try {
                     int foundPos = get();
                     if (foundPos != -1) {
-                        currentTab.textArea.setCaretPosition(foundPos);
-                        currentTab.textArea.select(foundPos, foundPos + searchTerm.length());
-                        currentTab.textArea.requestFocusInWindow();
+                        // Lines trimmed from the top while searching shift every offset
+                        if (!TextSearch.matchesAt(doc, searchTerm, foundPos, caseSensitive)
+                                || textArea.getDocument() != doc) {
+                            if (retryMoved) {
+                                findNextOrPrevious(searchUp, false);
+                            }
+                            return;
+                        }
+                        textArea.setCaretPosition(foundPos);
+                        textArea.select(foundPos, foundPos + searchTerm.length());
+                        textArea.requestFocusInWindow();
+                    } else if (currentTab.loadedFrom > 0) {
+                        int choice = JOptionPane.showConfirmDialog(null,
+                                "Text not found in the loaded part of the log. Load older content?",
+                                "Search Result", JOptionPane.YES_NO_OPTION);
+                        if (choice == JOptionPane.YES_OPTION) {
+                            backfillLog(currentTab);
+                        }
                     } else {
                         JOptionPane.showMessageDialog(null,
-                                "Text not found" + (wrapAroundCheckBox.isSelected() ? " in the entire document"
+                                "Text not found" + (wrapAround ? " in the entire document"
                                         : " in the search direction"),
                                 "Search Result",
                                 JOptionPane.INFORMATION_MESSAGE);
@@ -1257,6 +1428,64 @@ public class SCPLogViewer {
             }
         };
 
+        searchWorker = worker;
+        worker.execute();
+    }
+
+    /**
+     * Searches a tab's virtual view in the background, like the text area
+     * search. The worker scans a snapshot of the view's rows, matching the
+     * stored lines in place; the match is checked against the live view on the
+     * EDT before it is selected, and a newer search cancels this one.
+     *
+     * @param tabInfo       The tab to search
+     * @param searchTerm    The text to find
+     * @param searchUp      true to search upward
+     * @param caseSensitive Whether case must match
+     * @param wrapAround    Whether to continue from the other end
+     * @param retryMoved    Whether to search again if the match was evicted or
+     *                      the rows were rebuilt before it could be selected
+     */
+    private static void findInViewport(TabInfo tabInfo, String searchTerm, boolean searchUp, boolean caseSensitive,
+            boolean wrapAround, boolean retryMoved) {
+        LogViewport viewport = tabInfo.logViewport;
+        LogViewport.SearchSnapshot snapshot = viewport.searchSnapshot(searchUp);
+
+        SwingWorker<long[], Void> worker = new SwingWorker<long[], Void>() {
+            @Override
+            protected long[] doInBackground() {
+                return snapshot.find(searchTerm, searchUp, caseSensitive, wrapAround, this::isCancelled);
+            }
+
+            @Override
+            protected void done() {
+                if (isCancelled()) {
+                    return;
+                }
+                if (searchWorker == this) {
+                    searchWorker = null;
+                }
+                try {
+                    long[] found = get();
+                    if (found == null) {
+                        JOptionPane.showMessageDialog(null,
+                                "Text not found" + (wrapAround ? " in the entire document"
+                                        : " in the search direction"),
+                                "Search Result",
+                                JOptionPane.INFORMATION_MESSAGE);
+                    } else if (tabInfo.virtualView && tabInfo.logViewport == viewport
+                            && viewport.selectMatch(found[0], (int) found[1], searchTerm, caseSensitive)) {
+                        viewport.requestFocusInWindow();
+                    } else if (retryMoved) {
+                        findNextOrPrevious(searchUp, false);
+                    }
+                } catch (Exception e) {
+                    JOptionPane.showMessageDialog(null, "Search error: " + e.getMessage());
+                }
+            }
+        };
+
+        searchWorker = worker;
         worker.execute();
     }
 
@@ -1285,9 +1514,7 @@ public class SCPLogViewer {
     private static void closeTab(int index) {
         if (index >= 0 && index < tabs.size()) {
             TabInfo tab = tabs.get(index);
-            if (tab.monitoringThread != null) {
-                tab.monitoringThread.interrupt();
-            }
+            stopFileMonitoring(tab);
             tabs.remove(index);
             tabbedPane.remove(index);
 
@@ -1332,9 +1559,24 @@ public class SCPLogViewer {
             config.backgroundColor = tab.backgroundColor;
             config.font = tab.currentFont;
             config.filterDuplicates = tab.filterDuplicates;
+            config.collapseRepeats = tab.collapseRepeats;
             config.wordWrap = tab.wordWrap;
             config.showTimestamp = tab.showTimestamp;
             config.autoConnect = tab.autoConnect;
+            config.sourceMode = tab.sourceMode;
+            config.pollMinInterval = tab.pollMinInterval;
+            config.pollMaxInterval = tab.pollMaxInterval;
+            config.pollBackgroundInterval = tab.pollBackgroundInterval;
+            config.drainRotated = tab.drainRotated;
+            config.maxBatchLines = tab.maxBatchLines;
+            config.partialLineFlushMs = tab.partialLineFlushMs;
+            config.scrollbackLines = tab.scrollbackLines;
+            config.scrollbackBytes = tab.scrollbackBytes;
+            config.virtualView = tab.virtualView;
+            config.dedupStrategy = tab.dedupStrategy;
+            config.dedupMemoryKb = tab.dedupMemoryKb;
+            config.dedupWindowSeconds = tab.dedupWindowSeconds;
+            config.dedupFalsePositiveRate = tab.dedupFalsePositiveRate;
             tabConfigs.add(config);
         }
         Configuration.saveConfig(isDarkMode, tabConfigs);
@@ -1383,10 +1625,6 @@ public class SCPLogViewer {
         }
 
         // Restart monitoring with new settings
-        if (tabInfo.monitoringThread != null) {
-            tabInfo.monitoringThread.interrupt();
-        }
-
         startFileMonitoring(tabInfo);
 
         JOptionPane.showMessageDialog(null, "Settings saved successfully!");
@@ -1424,306 +1662,1014 @@ public class SCPLogViewer {
      * Updates the last update timestamp for a tab.
      * 
      * This method updates the last update label with the current date and time
-     * formatted as "yyyy-MM-dd HH:mm:ss".
+     * formatted as "yyyy-MM-dd HH:mm:ss" by the shared LogTimestamps clock. When received lines waited noticeably
+     * for the EDT before being shown, the lag is shown as well.
      *
      * @param tabInfo The tab information to update
      */
     private static void updateLastUpdateTime(TabInfo tabInfo) {
-        SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
-        tabInfo.lastUpdateLabel.setText("Last Update: " + sdf.format(new Date()));
+        String lag = tabInfo.ingestLagMillis >= UI_LAG_REPORT_MS ? " (UI lag " + tabInfo.ingestLagMillis + " ms)" : "";
+        tabInfo.lastUpdateLabel.setText("Last Update: " + LogTimestamps.now() + lag);
     }
 
     /**
-     * Appends log content to a tab's text area with optional filtering.
+     * Appends log lines to a tab's text area with optional filtering.
      * 
-     * This method processes and appends log content to the text area, handling:
+     * This method processes a batch of lines and appends them to the text
+     * area, handling:
      * - Special escape codes for clearing logs
-     * - Optional duplicate line filtering
+     * - Optional duplicate line filtering and repeat collapsing
      * - Optional timestamp prefixing
-     * - Raw log content storage
+     * - Line store storage
      * - Auto-scrolling to latest content
      *
-     * The content is processed on the Event Dispatch Thread to ensure thread
-     * safety.
+     * The whole batch is appended with a single document insert and a single
+     * caret update. Must be called on the Event Dispatch Thread.
      * JNI_OnLoad messages are filtered out.
      *
-     * @param tabInfo        The tab information to append logs to
-     * @param initialContent The raw log content to process and append
-     * @param addToRaw       Whether to store the content in raw log storage
+     * @param tabInfo The tab information to append logs to
+     * @param lines   The raw log lines to process and append
      */
-    private static void appendToLogWithFiltering(TabInfo tabInfo, final String initialContent, boolean addToRaw) {
-        SwingUtilities.invokeLater(() -> {
-            if (!initialContent.contains("JNI_OnLoad called")) {
-                // Create a mutable copy of the content
-                String content = initialContent;
-
-                // Handle ESCAPE_CODE_CLEAR - clear all logs
-                if (content.contains(ESCAPE_CODE_CLEAR)) {
-                    tabInfo.textArea.setText("");
-                    tabInfo.seenLogContents.clear();
-                    if (tabInfo.rawLogContent != null) {
-                        tabInfo.rawLogContent = new StringBuilder();
+    private static void appendToLogWithFiltering(TabInfo tabInfo, List<String> lines) {
+        StringBuilder display = new StringBuilder();
+        long now = System.currentTimeMillis();
+        String timestamp = LogTimestamps.format(now);
+        boolean virtual = tabInfo.virtualView;
+        boolean storeCut = false;
+        // Lines arriving while the user reads further up or looks at another tab are only stored
+        boolean held = isHeld(tabInfo);
+
+        for (String initialContent : lines) {
+            if (initialContent.contains("JNI_OnLoad called")) {
+                continue;
+            }
+            // Create a mutable copy of the content
+            String content = initialContent;
+
+            // Handle ESCAPE_CODE_CLEAR - clear all logs, including the batch so far
+            if (content.contains(ESCAPE_CODE_CLEAR)) {
+                display.setLength(0);
+                tabInfo.textArea.setText("");
+                tabInfo.rowIds.clear();
+                tabInfo.duplicateFilter.clear();
+                tabInfo.repeatCollapser.reset();
+                tabInfo.lineStore.clear();
+                storeCut = true;
+                restartRerender(tabInfo);
+                // Nothing is left to read above; follow the new content
+                tabInfo.heldFrom = tabInfo.lineStore.addedCount();
+                tabInfo.followTail = true;
+                held = isHeld(tabInfo);
+                // Remove the escape code from content
+                content = content.replace(ESCAPE_CODE_CLEAR, "");
+            }
+
+            // Handle ESCAPE_CODE_CLEAR_BOTTOM - clear logs from current position to end
+            if (content.contains(ESCAPE_CODE_CLEAR_BOTTOM)) {
+                if (virtual) {
+                    tabInfo.lineStore.truncate(tabInfo.logViewport.caretLineIndex());
+                } else {
+                    flushAppend(tabInfo, display);
+                    if (held) {
+                        // The caret refers to the document, so it has to show every stored line first
+                        flushHeldLines(tabInfo);
+                    }
+                    int cutOffset = tabInfo.textArea.getCaretPosition();
+                    try {
+                        // Cut the document and the store at the start of the caret's line, so both keep
+                        // exactly the lines before it and a re-render shows the same log
+                        int caretLine = tabInfo.textArea.getLineOfOffset(cutOffset);
+                        if (caretLine < tabInfo.rowIds.size()) {
+                            cutOffset = tabInfo.textArea.getLineStartOffset(caretLine);
+                            tabInfo.lineStore.truncate(
+                                    (int) Math.max(0, tabInfo.rowIds.get(caretLine) - tabInfo.lineStore.firstId()));
+                            tabInfo.rowIds.truncate(caretLine);
+                        }
+                    } catch (BadLocationException e) {
+                        e.printStackTrace();
                     }
-                    // Remove the escape code from content
-                    content = content.replace(ESCAPE_CODE_CLEAR, "");
+                    tabInfo.textArea.replaceRange("", cutOffset, tabInfo.textArea.getDocument().getLength());
+                    tabInfo.repeatCollapser.reset();
+                    restartRerender(tabInfo);
                 }
+                storeCut = true;
+                tabInfo.heldFrom = tabInfo.lineStore.addedCount();
+
+                // Remove the escape code from content
+                content = content.replace(ESCAPE_CODE_CLEAR_BOTTOM, "");
+            }
+
+            if (content.trim().isEmpty()) {
+                continue;
+            }
+            // Extract the actual content without timestamp if it exists
+            String actualContent = TimestampPrefix.strip(content);
+            long id = tabInfo.lineStore.add(now, actualContent);
+            if (!virtual && !held) {
+                renderLine(tabInfo, tabInfo.duplicateFilter, tabInfo.repeatCollapser, tabInfo.rowIds,
+                        tabInfo.textArea.getDocument(), id, actualContent, timestamp, display);
+            }
+        }
+
+        if (virtual) {
+            // The virtual view reads the store directly
+            if (storeCut) {
+                tabInfo.logViewport.rebuild();
+            } else if (tabInfo.visible) {
+                tabInfo.logViewport.linesAdded();
+            }
+        } else if (!held) {
+            flushAppend(tabInfo, display);
+        }
+        updateNewLinesIndicator(tabInfo);
+    }
+
+    /**
+     * Adds one line to the pending part of a batch, applying the tab's current
+     * repeat collapsing, duplicate filtering and timestamp settings. Must be
+     * called on the EDT.
+     *
+     * @param tabInfo       The tab being rendered
+     * @param filter        The duplicate filter to check the line against
+     * @param collapser     The repeat state of the document being built
+     * @param rows          The store ids of the document's lines
+     * @param doc           The document the batch will be appended to
+     * @param id            The line's store id
+     * @param actualContent The line content without timestamp
+     * @param timestamp     The formatted time the line arrived
+     * @param display       The pending, not yet appended part of the batch
+     */
+    private static void renderLine(TabInfo tabInfo, DuplicateFilter filter, RepeatCollapser collapser, RowIds rows,
+            Document doc, long id, String actualContent, String timestamp, StringBuilder display) {
+        renderLine(tabInfo.showTimestamp, tabInfo.filterDuplicates, tabInfo.collapseRepeats, filter, collapser, rows,
+                doc, id, actualContent, timestamp, display);
+    }
+
+    /**
+     * Adds one line to the pending part of a batch with the given display
+     * settings. Background re-renders pass settings copied on the EDT, so a
+     * toggle during the rebuild cannot switch them halfway through.
+     *
+     * @param showTimestamp    Whether to prefix the line with its time
+     * @param filterDuplicates Whether to hide lines the filter has seen
+     * @param collapseRepeats  Whether consecutive repeats only update a counter
+     * @param filter           The duplicate filter to check the line against
+     * @param collapser        The repeat state of the document being built
+     * @param rows             The store ids of the document's lines
+     * @param doc              The document the batch will be appended to
+     * @param id               The line's store id
+     * @param actualContent    The line content without timestamp
+     * @param timestamp        The formatted time the line arrived
+     * @param display          The pending, not yet appended part of the batch
+     */
+    private static void renderLine(boolean showTimestamp, boolean filterDuplicates, boolean collapseRepeats,
+            DuplicateFilter filter, RepeatCollapser collapser, RowIds rows, Document doc, long id,
+            String actualContent, String timestamp, StringBuilder display) {
+        if (collapseRepeats && collapser.isRepeat(actualContent)) {
+            // Consecutive repeat: only the counter on the shown line changes
+            updateRepeatCounter(collapser, doc, display);
+            return;
+        }
 
-                // Handle ESCAPE_CODE_CLEAR_BOTTOM - clear logs from current position to end
-                if (content.contains(ESCAPE_CODE_CLEAR_BOTTOM)) {
-                    int caretPosition = tabInfo.textArea.getCaretPosition();
-                    String topContent = tabInfo.textArea.getText().substring(0, caretPosition);
-                    tabInfo.textArea.setText(topContent);
+        // Check if we've seen this content before
+        if (filterDuplicates && filter.isDuplicate(actualContent)) {
+            return;
+        }
 
-                    // Also update raw content if it exists
-                    if (tabInfo.rawLogContent != null) {
-                        tabInfo.rawLogContent = new StringBuilder(topContent);
+        // Add timestamp only if showTimestamp is true
+        if (showTimestamp) {
+            display.append('[').append(timestamp).append("] ");
+        }
+        display.append(actualContent);
+        if (collapseRepeats) {
+            collapser.shown(actualContent, doc.getLength() + display.length());
+        }
+        display.append('\n');
+        rows.add(id);
+    }
+
+    /**
+     * Rebuilds a tab's text area from its line store after a display option
+     * changed, using each line's stored arrival time.
+     *
+     * The new document is built on a background thread from a copy of the
+     * store, with a fresh duplicate filter and repeat state, while the old
+     * document stays visible and keeps receiving lines. On the EDT the new
+     * document is then swapped in, and the lines that arrived during the
+     * rebuild are appended to it. Calling this again while a rebuild runs
+     * supersedes it. A tab in virtual view just rebuilds its row index. Must
+     * be called on the EDT.
+     *
+     * @param tabInfo The tab to re-render
+     */
+    private static void rerenderFromStore(TabInfo tabInfo) {
+        if (tabInfo.virtualView) {
+            tabInfo.logViewport.rebuild();
+            return;
+        }
+        long generation = ++tabInfo.renderGeneration;
+        tabInfo.rerendering = true;
+        LineStore snapshot = tabInfo.lineStore.copy();
+        DuplicateFilter filter = tabInfo.createDuplicateFilter();
+        RepeatCollapser collapser = new RepeatCollapser();
+        RowIds rows = new RowIds();
+        // The worker must not read the live settings, which a toggle may change meanwhile
+        boolean showTimestamp = tabInfo.showTimestamp;
+        boolean filterDuplicates = tabInfo.filterDuplicates;
+        boolean collapseRepeats = tabInfo.collapseRepeats;
+
+        SwingWorker<Document, Void> worker = new SwingWorker<>() {
+            @Override
+            protected Document doInBackground() throws Exception {
+                LogDocument doc = new LogDocument();
+                StringBuilder display = new StringBuilder();
+                for (int i = 0; i < snapshot.size(); i++) {
+                    if (generation != tabInfo.renderGeneration) {
+                        return null;
                     }
+                    renderLine(showTimestamp, filterDuplicates, collapseRepeats, filter, collapser, rows, doc,
+                            snapshot.firstId() + i, snapshot.line(i), LogTimestamps.format(snapshot.time(i)),
+                            display);
+                    if (display.length() >= RERENDER_CHUNK_CHARS) {
+                        doc.insertString(doc.getLength(), display.toString(), null);
+                        display.setLength(0);
+                    }
+                }
+                doc.insertString(doc.getLength(), display.toString(), null);
+                return doc;
+            }
 
-                    // Remove the escape code from content
-                    content = content.replace(ESCAPE_CODE_CLEAR_BOTTOM, "");
+            @Override
+            protected void done() {
+                if (generation != tabInfo.renderGeneration) {
+                    return;
+                }
+                tabInfo.rerendering = false;
+                try {
+                    swapDocument(tabInfo, get(), filter, collapser, rows, snapshot.addedCount());
+                } catch (Exception e) {
+                    e.printStackTrace();
                 }
+            }
+        };
+        worker.execute();
+    }
 
-                final String processedContent = content;
-                boolean shouldAppend = true;
+    /**
+     * Starts the running re-render of a tab over, after its line store was
+     * changed in a way other than appending. Does nothing if none is running.
+     *
+     * @param tabInfo The tab whose store changed
+     */
+    private static void restartRerender(TabInfo tabInfo) {
+        if (tabInfo.rerendering) {
+            rerenderFromStore(tabInfo);
+        }
+    }
 
-                if (tabInfo.filterDuplicates) {
-                    // Extract the actual log content without timestamp
-                    String logContent = processedContent;
-                    if (processedContent.matches("\\[\\d{4}-\\d{2}-\\d{2} \\d{2}:\\d{2}:\\d{2}\\].*")) {
-                        logContent = processedContent.substring(processedContent.indexOf("]") + 1).trim();
-                    }
+    /**
+     * Replaces a tab's document with a re-rendered one and appends the lines
+     * that arrived since the store was copied. A view scrolled to the end
+     * stays at the end; otherwise the scroll position is kept proportionally.
+     *
+     * @param tabInfo       The tab to update
+     * @param doc           The re-rendered document
+     * @param filter        The duplicate filter filled while rendering it
+     * @param collapser     The repeat state matching it
+     * @param rows          The store ids of its lines
+     * @param renderedCount The store's addedCount() when it was copied
+     */
+    private static void swapDocument(TabInfo tabInfo, Document doc, DuplicateFilter filter, RepeatCollapser collapser,
+            RowIds rows, long renderedCount) {
+        JScrollPane scrollPane = (JScrollPane) SwingUtilities.getAncestorOfClass(JScrollPane.class, tabInfo.textArea);
+        JScrollBar bar = scrollPane != null ? scrollPane.getVerticalScrollBar() : null;
+        int scrollRange = bar != null ? bar.getMaximum() - bar.getVisibleAmount() : 0;
+        boolean atEnd = tabInfo.followTail;
+        double position = scrollRange > 0 ? (double) bar.getValue() / scrollRange : 0;
+
+        tabInfo.textArea.getHighlighter().removeAllHighlights();
+        tabInfo.textArea.setDocument(doc);
+        tabInfo.duplicateFilter = filter;
+        tabInfo.repeatCollapser = collapser;
+        tabInfo.rowIds = rows;
+
+        LineStore store = tabInfo.lineStore;
+        int missed = (int) Math.min(store.size(), store.addedCount() - renderedCount);
+        StringBuilder display = new StringBuilder();
+        for (int i = store.size() - missed; i < store.size(); i++) {
+            renderLine(tabInfo, filter, collapser, rows, doc, store.firstId() + i, store.line(i),
+                    LogTimestamps.format(store.time(i)), display);
+        }
+        flushAppend(tabInfo, display);
+        trimScrollback(tabInfo);
+        // The re-rendered document holds every stored line, including any held ones
+        tabInfo.heldFrom = store.addedCount();
+        updateNewLinesIndicator(tabInfo);
+
+        if (atEnd) {
+            tabInfo.textArea.setCaretPosition(doc.getLength());
+        } else {
+            // Restore the position once the new document has been laid out
+            SwingUtilities.invokeLater(() -> bar.setValue(
+                    (int) (position * (bar.getMaximum() - bar.getVisibleAmount()))));
+        }
+    }
 
-                    // Check if we've seen this content before
-                    if (tabInfo.seenLogContents.contains(logContent)) {
-                        shouldAppend = false;
-                    } else {
-                        tabInfo.seenLogContents.add(logContent);
-                    }
+    /**
+     * Rewrites the repeat counter of the last shown line in place. The line is
+     * either still in the pending part of the batch or already in the
+     * document; the counter is replaced wherever it is, without appending.
+     *
+     * @param collapser The repeat state whose last line repeated
+     * @param doc       The document the batch will be appended to
+     * @param display   The pending, not yet appended part of the batch
+     */
+    private static void updateRepeatCounter(RepeatCollapser collapser, Document doc, StringBuilder display) {
+        String counter = collapser.counterText();
+        int start = collapser.getCounterStart();
+        int length = collapser.getCounterLength();
+        int documentLength = doc.getLength();
+
+        if (start >= documentLength) {
+            display.replace(start - documentLength, start - documentLength + length, counter);
+        } else {
+            try {
+                ((AbstractDocument) doc).replace(start, length, counter, null);
+            } catch (BadLocationException e) {
+                e.printStackTrace();
+                collapser.reset();
+                return;
+            }
+        }
+        collapser.counterWritten(counter.length());
+    }
+
+    /**
+     * Appends the accumulated part of a batch to the text area, then scrolls
+     * to the end if the tab follows new lines. Empties the builder.
+     */
+    private static void flushAppend(TabInfo tabInfo, StringBuilder display) {
+        if (display.length() == 0) {
+            return;
+        }
+        tabInfo.textArea.append(display.toString());
+        display.setLength(0);
+        trimScrollback(tabInfo);
+
+        if (tabInfo.followTail) {
+            try {
+                tabInfo.textArea.setCaretPosition(tabInfo.textArea.getDocument().getLength());
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * @param tabInfo The tab to check
+     * @return Whether new lines are kept in the tab's line store only, because
+     *         the user reads further up or the tab is not selected
+     */
+    private static boolean isHeld(TabInfo tabInfo) {
+        return !tabInfo.followTail || !tabInfo.visible;
+    }
+
+    /**
+     * Stops scrolling a tab to new lines, after the user scrolled up to read.
+     * Until {@link #followTail(TabInfo)} is called, arriving lines are kept in
+     * the line store only and counted by the tab's new lines indicator, so
+     * they cost neither a caret update nor a layout of the text area.
+     *
+     * @param tabInfo The tab the user scrolled
+     */
+    private static void stopFollowingTail(TabInfo tabInfo) {
+        if (!isHeld(tabInfo)) {
+            tabInfo.heldFrom = tabInfo.lineStore.addedCount();
+        }
+        tabInfo.followTail = false;
+    }
+
+    /**
+     * Resumes following new lines: renders the lines held since the tab
+     * stopped following and scrolls to the end. Called for the End key, a
+     * click on the new lines indicator, or when the user scrolls back to the
+     * end.
+     *
+     * @param tabInfo The tab to follow
+     */
+    private static void followTail(TabInfo tabInfo) {
+        boolean wasHeld = isHeld(tabInfo);
+        tabInfo.followTail = true;
+        if (tabInfo.virtualView) {
+            tabInfo.logViewport.scrollToEnd();
+        } else {
+            if (wasHeld && !isHeld(tabInfo)) {
+                flushHeldLines(tabInfo);
+            }
+            tabInfo.textArea.setCaretPosition(tabInfo.textArea.getDocument().getLength());
+        }
+        updateNewLinesIndicator(tabInfo);
+    }
+
+    /**
+     * Marks the selected tab visible and the others not. Tabs that are not
+     * visible keep storing lines but leave their document alone, and are
+     * polled at their background rate; a tab that becomes visible is polled
+     * at once and catches up with everything it held in one go.
+     */
+    private static void updateTabVisibility() {
+        int selectedIndex = tabbedPane.getSelectedIndex();
+        pollScheduler.setVisibleTab(getCurrentTab());
+        for (int i = 0; i < tabs.size(); i++) {
+            TabInfo tab = tabs.get(i);
+            boolean visible = i == selectedIndex;
+            if (visible == tab.visible) {
+                continue;
+            }
+            boolean wasHeld = isHeld(tab);
+            tab.visible = visible;
+            if (!wasHeld) {
+                tab.heldFrom = tab.lineStore.addedCount();
+            } else if (visible && tab.virtualView) {
+                tab.logViewport.linesAdded();
+            } else if (!isHeld(tab)) {
+                flushHeldLines(tab);
+            }
+        }
+    }
+
+    /**
+     * Renders the lines a tab held while it was not following or not visible
+     * and appends them with a single insert, then scrolls to the end if the
+     * tab follows. The store is already within the scrollback limits, so at
+     * most the whole store is rendered; if every stored line is new, the
+     * document is replaced instead of appended to and trimmed.
+     *
+     * @param tabInfo The tab to catch up
+     */
+    private static void flushHeldLines(TabInfo tabInfo) {
+        LineStore store = tabInfo.lineStore;
+        int held = (int) Math.min(store.size(), store.addedCount() - tabInfo.heldFrom);
+        tabInfo.heldFrom = store.addedCount();
+        if (held == 0) {
+            return;
+        }
+        if (held == store.size()) {
+            tabInfo.textArea.setText("");
+            tabInfo.rowIds.clear();
+            tabInfo.repeatCollapser.reset();
+        }
+        StringBuilder display = new StringBuilder();
+        for (int i = store.size() - held; i < store.size(); i++) {
+            renderLine(tabInfo, tabInfo.duplicateFilter, tabInfo.repeatCollapser, tabInfo.rowIds,
+                    tabInfo.textArea.getDocument(), store.firstId() + i, store.line(i),
+                    LogTimestamps.format(store.time(i)), display);
+        }
+        flushAppend(tabInfo, display);
+    }
+
+    /**
+     * Shows how many lines arrived since the tab stopped following, or hides
+     * the indicator while it follows.
+     *
+     * @param tabInfo The tab to update
+     */
+    private static void updateNewLinesIndicator(TabInfo tabInfo) {
+        if (tabInfo.newLinesLabel == null) {
+            return;
+        }
+        long count = tabInfo.followTail ? 0 : tabInfo.lineStore.addedCount() - tabInfo.heldFrom;
+        tabInfo.newLinesLabel.setVisible(count > 0);
+        if (count > 0) {
+            tabInfo.newLinesLabel.setText(String.format("%,d new line%s below - click or press End to follow",
+                    count, count == 1 ? "" : "s"));
+        }
+    }
+
+    /**
+     * Removes whole lines from the head of a tab's document once it exceeds
+     * the tab's scrollback limits by more than SCROLLBACK_SLACK, bringing it
+     * back within both limits in one removal. Line boundaries come from the
+     * document's root element, so the text is never copied out. The byte
+     * limit is applied as two bytes per character.
+     *
+     * Trimmed lines cannot be backfilled again without leaving a gap, so
+     * backfilling is turned off for the tab once its head has been trimmed.
+     *
+     * @param tabInfo The tab whose document to trim
+     */
+    private static void trimScrollback(TabInfo tabInfo) {
+        Document doc = tabInfo.textArea.getDocument();
+        Element root = doc.getDefaultRootElement();
+        // The last element is the empty line after the final newline
+        int lineCount = root.getElementCount() - 1;
+        int length = doc.getLength();
+        int maxLines = tabInfo.scrollbackLines;
+        long maxChars = tabInfo.scrollbackBytes / 2;
+        if (lineCount <= maxLines * (1 + SCROLLBACK_SLACK) && length <= maxChars * (1 + SCROLLBACK_SLACK)) {
+            return;
+        }
+
+        int end = lineCount > maxLines ? root.getElement(lineCount - maxLines - 1).getEndOffset() : 0;
+        if (length - end > maxChars) {
+            // Cut after the line holding the first character that must go
+            end = root.getElement(root.getElementIndex((int) (length - maxChars))).getEndOffset();
+        }
+        end = Math.min(end, length);
+        if (end <= 0) {
+            return;
+        }
+
+        // end is a line end, so the line starting there is the first one kept
+        int removedLines = root.getElementIndex(end);
+        try {
+            doc.remove(0, end);
+        } catch (BadLocationException e) {
+            e.printStackTrace();
+            return;
+        }
+        tabInfo.rowIds.removeFirst(removedLines);
+        tabInfo.repeatCollapser.shift(-end);
+        tabInfo.loadedFrom = 0;
+    }
+
+    /**
+     * Drains every tab's ingest queue into its text area. Runs on the EDT once
+     * per frame from the ingest timer, appending at most maxBatchLines lines
+     * per tab so a huge burst is spread over several frames instead of
+     * freezing the UI. Records how long the oldest drained line waited.
+     */
+    private static void drainIngestQueues() {
+        List<String> batch = new ArrayList<>();
+        for (TabInfo tabInfo : tabs) {
+            batch.clear();
+            long lag = tabInfo.ingestQueue.drainTo(batch, tabInfo.maxBatchLines);
+            if (batch.isEmpty()) {
+                continue;
+            }
+            appendToLogWithFiltering(tabInfo, batch);
+            tabInfo.ingestLagMillis = lag;
+            updateLastUpdateTime(tabInfo);
+        }
+    }
+
+    /**
+     * Queues a single line received from the remote log for display, skipping
+     * blank lines and JNI_OnLoad noise. Safe to call from any thread; the line
+     * is appended with the next batch drained on the EDT.
+     *
+     * @param tabInfo The tab the line belongs to
+     * @param line    The raw line without its trailing newline
+     */
+    private static void ingestLine(TabInfo tabInfo, String line) {
+        if (!line.trim().isEmpty() && !line.contains("JNI_OnLoad called")) {
+            tabInfo.ingestQueue.add(line);
+        }
+    }
+
+    /**
+     * Fetches and processes log file content from a remote server via SSH.
+     * 
+     * This method checks out a pooled SSH session and asks the tab's log source
+     * for the file state and every byte written since the last check. The exec
+     * source does this with a single compound command, so a poll is one round
+     * trip and the reported size always matches the returned bytes. The SFTP
+     * source stats the file and reads only the new range without spawning
+     * remote processes.
+     * 
+     * The method performs the following steps:
+     * 1. Checks out a pooled SSH session (connecting only if none is alive)
+     * 2. Fetches existence, size, inode and the new bytes in one request
+     * 3. Restarts from offset 0 if the file was rotated or truncated
+     * 4. Feeds the raw bytes to the tab's LineAssembler, which emits only
+     * complete lines and keeps a half-written line for the next poll
+     * 5. Updates the UI with new content and status
+     *
+     * The first fetch (offset 0) reads only the last
+     * LogSource.INITIAL_LOAD_BYTES of the file, starting at its first complete
+     * line, so large logs show up within one round trip. Older content is
+     * loaded on demand by {@link #backfillLog}. Later polls read at most
+     * LogSource.POLL_CHUNK_BYTES; when more is pending, the next poll is run
+     * right away, so a burst is caught up without one oversized read.
+     *
+     * Rotation is detected by comparing the file's inode and the fingerprint
+     * of its first bytes with the ones seen before, and truncation by the size
+     * dropping below the read offset. In both cases the new file is loaded in
+     * the same poll like a first fetch, from its last INITIAL_LOAD_BYTES. With
+     * drainRotated set, the unread end of the old file is first read from its
+     * ".1" name, so a rotation at midnight leaves no gap.
+     *
+     * @param tabInfo The TabInfo object containing connection details and log file
+     *                information
+     *                including host, user, password, log file path, and UI
+     *                components
+     * @return true if the file changed since the last fetch, which tells the
+     *         poll scheduler to keep polling at the tab's fastest interval
+     */
+    private static boolean fetchLogFile(TabInfo tabInfo) {
+        // Polls and manual refreshes share the tab's buffers and read offset
+        synchronized (tabInfo.fetchResult) {
+            Session session = null;
+
+            try {
+                session = sessionPool.acquire(tabInfo);
+
+                FetchResult result = tabInfo.fetchResult;
+                boolean initialLoad = tabInfo.lastModified == 0;
+                if (initialLoad) {
+                    logSourceFor(tabInfo).fetchRange(session, tabInfo.logFile, -LogSource.INITIAL_LOAD_BYTES, -1,
+                            result);
+                } else {
+                    logSourceFor(tabInfo).fetchRange(session, tabInfo.logFile, tabInfo.lastModified,
+                            LogSource.POLL_CHUNK_BYTES, result);
+                }
+                if (!result.exists) {
+                    updateStatus(tabInfo, true, "Log file not found");
+                    return false;
                 }
 
-                // Continue with existing append logic if content should be appended
-                if (shouldAppend && !processedContent.trim().isEmpty()) {
-                    String formattedContent;
-                    // Extract the actual content without timestamp if it exists
-                    String actualContent;
-                    if (processedContent.matches("\\[\\d{4}-\\d{2}-\\d{2} \\d{2}:\\d{2}:\\d{2}\\].*")) {
-                        actualContent = processedContent.substring(processedContent.indexOf("]") + 1).trim();
-                    } else {
-                        actualContent = processedContent.trim();
+                Consumer<String> sink = line -> ingestLine(tabInfo, line);
+                String rotation = detectRotation(tabInfo, result);
+                if (rotation != null) {
+                    if (tabInfo.drainRotated) {
+                        drainRotatedFile(tabInfo, session);
+                    }
+                    // The old file's last line ends with the old file
+                    tabInfo.lineAssembler.flush(sink);
+                    tabInfo.lastModified = 0;
+                    tabInfo.loadedFrom = 0;
+                    tabInfo.headFingerprintLength = 0;
+                    // Loaded like a first fetch, so a large replacement file is not read whole
+                    initialLoad = true;
+                    logSourceFor(tabInfo).fetchRange(session, tabInfo.logFile, -LogSource.INITIAL_LOAD_BYTES, -1,
+                            result);
+                    if (!result.exists) {
+                        updateStatus(tabInfo, true, "Log file not found");
+                        return true;
                     }
+                }
+                rememberFileIdentity(tabInfo, result);
 
-                    // Add timestamp only if showTimestamp is true
-                    if (tabInfo.showTimestamp) {
-                        String timestamp = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss").format(new Date());
-                        formattedContent = String.format("[%s] %s\n", timestamp, actualContent);
-                    } else {
-                        formattedContent = actualContent + "\n";
+                if (result.size == tabInfo.lastModified) {
+                    if (rotation != null) {
+                        updateStatus(tabInfo, true, rotation);
+                        return true;
                     }
+                    boolean flushed = tabInfo.lineAssembler.flushIfOlderThan(tabInfo.partialLineFlushMs, sink);
+                    updateStatus(tabInfo, true, flushed ? "Updated" : "No changes");
+                    return false;
+                }
 
-                    tabInfo.textArea.append(formattedContent);
+                int skip = 0;
+                if (initialLoad) {
+                    // Start at the first complete line; the cut one is left for backfill
+                    skip = result.offset > 0 ? partialLineLength(result.data, result.length) : 0;
+                    tabInfo.loadedFrom = result.offset + skip;
+                    tabInfo.lineAssembler.reset();
+                }
+                tabInfo.lineAssembler.feed(ByteBuffer.wrap(result.data, skip, result.length - skip), sink);
 
-                    if (addToRaw) {
-                        if (tabInfo.rawLogContent == null) {
-                            tabInfo.rawLogContent = new StringBuilder();
-                        }
-                        // Store the raw content with timestamp for future toggling
-                        String timestamp = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss").format(new Date());
-                        String rawContent = String.format("[%s] %s\n", timestamp, actualContent);
-                        tabInfo.rawLogContent.append(rawContent);
-                    }
+                tabInfo.lastModified = result.offset + result.length;
+                if (tabInfo.lastModified < result.size) {
+                    // The rest is read by the next poll, which runs as soon as this one ends
+                    pollScheduler.pollNow(tabInfo);
+                }
+                updateStatus(tabInfo, true, rotation != null ? rotation : "Updated");
+                return true;
+
+            } catch (JSchException e) {
+                // Drop the pooled session so the next poll reconnects
+                sessionPool.invalidate(session);
+                session = null;
+                updateStatus(tabInfo, false, "Connection error: " + e.getMessage());
+                e.printStackTrace();
+            } catch (IOException e) {
+                updateStatus(tabInfo, false, "File read error: " + e.getMessage());
+                e.printStackTrace();
+            } finally {
+                sessionPool.release(session);
+            }
+            return false;
+        }
+    }
 
-                    try {
-                        tabInfo.textArea.setCaretPosition(tabInfo.textArea.getDocument().getLength());
-                    } catch (Exception e) {
-                        e.printStackTrace();
-                    }
+    /**
+     * Compares a fetch result with the file identity recorded for the tab.
+     *
+     * @param tabInfo The tab being polled
+     * @param result  The state of the file at the tab's path
+     * @return A status message if the file was truncated or replaced since the
+     *         last poll, or null if it is the same file
+     */
+    private static String detectRotation(TabInfo tabInfo, FetchResult result) {
+        if (tabInfo.lastModified == 0) {
+            return null;
+        }
+        if (result.size < tabInfo.lastModified) {
+            return "Log truncated";
+        }
+        if (result.inode != 0 && tabInfo.fileInode != 0 && result.inode != tabInfo.fileInode) {
+            return "Log rotated";
+        }
+        if (!result.headMatches(tabInfo.headFingerprint, tabInfo.headFingerprintLength)) {
+            // Same inode and not smaller, but rewritten in place (e.g. copytruncate then regrowth)
+            return "Log rotated";
+        }
+        return null;
+    }
+
+    /**
+     * Records the inode and head fingerprint of the file just read. The
+     * fingerprint is extended while the file is still shorter than HEAD_BYTES.
+     */
+    private static void rememberFileIdentity(TabInfo tabInfo, FetchResult result) {
+        tabInfo.fileInode = result.inode;
+        if (result.headLength > tabInfo.headFingerprintLength) {
+            System.arraycopy(result.head, 0, tabInfo.headFingerprint, 0, result.headLength);
+            tabInfo.headFingerprintLength = result.headLength;
+        }
+    }
+
+    /**
+     * Ingests the unread end of a rotated log from its ".1" name.
+     *
+     * The rotated file is only read if its head matches the fingerprint of
+     * the file the tab was reading and it is at least as long as the tab's
+     * offset, so an unrelated or compressed ".1" file is never mixed in.
+     * Failures are reported and otherwise ignored; the new file is still read.
+     * The rest is read in chunks of POLL_CHUNK_BYTES, so a large unread end
+     * takes several reads rather than one buffer of its whole size.
+     *
+     * @param tabInfo The tab whose file was rotated
+     * @param session The session the poll is using
+     */
+    private static void drainRotatedFile(TabInfo tabInfo, Session session) {
+        FetchResult rotated = new FetchResult();
+        try {
+            String rotatedFile = tabInfo.logFile + ".1";
+            logSourceFor(tabInfo).fetchRange(session, rotatedFile, tabInfo.lastModified,
+                    LogSource.POLL_CHUNK_BYTES, rotated);
+            if (!rotated.exists || rotated.size < tabInfo.lastModified
+                    || tabInfo.headFingerprintLength == 0
+                    || !rotated.headMatches(tabInfo.headFingerprint, tabInfo.headFingerprintLength)) {
+                return;
+            }
+            long end = rotated.size;
+            while (true) {
+                // Continues the partial line the tab was holding when the file was rotated
+                tabInfo.lineAssembler.feed(ByteBuffer.wrap(rotated.data, 0, rotated.length),
+                        line -> ingestLine(tabInfo, line));
+                long next = rotated.offset + rotated.length;
+                if (rotated.length == 0 || next >= end) {
+                    break;
                 }
+                logSourceFor(tabInfo).fetchRange(session, rotatedFile, next,
+                        Math.min(LogSource.POLL_CHUNK_BYTES, end - next), rotated);
+                if (!rotated.exists) {
+                    break;
+                }
+            }
+        } catch (JSchException | IOException e) {
+            updateStatus(tabInfo, true, "Could not read rotated log: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Returns the log source used for polling a tab, based on its source mode.
+     *
+     * @param tabInfo The tab being polled
+     * @return The shared exec source, or the tab's own SFTP source
+     */
+    private static LogSource logSourceFor(TabInfo tabInfo) {
+        if (tabInfo.sourceMode == SourceMode.SFTP) {
+            if (tabInfo.sftpLogSource == null) {
+                tabInfo.sftpLogSource = new SftpLogSource();
             }
-        });
+            return tabInfo.sftpLogSource;
+        }
+        return execLogSource;
     }
 
     /**
-     * Fetches and processes log file content from a remote server via SSH.
-     * 
-     * This method connects to a remote server using SSH, checks if the specified
-     * log file exists,
-     * gets its current size, and reads any new content since the last check. The
-     * content is read
-     * using base64 encoding to preserve special characters and is then decoded and
-     * filtered before
-     * being appended to the text area.
-     * 
-     * The method performs the following steps:
-     * 1. Establishes SSH connection using JSch
-     * 2. Verifies log file existence
-     * 3. Gets current file size
-     * 4. Reads new content (either full file or only new bytes)
-     * 5. Decodes base64 content and processes line by line
-     * 6. Updates the UI with new content and status
+     * Returns the number of bytes up to and including the first '\n', or 0 if
+     * the buffer holds no newline at all.
      *
-     * @param tabInfo The TabInfo object containing connection details and log file
-     *                information
-     *                including host, user, password, log file path, and UI
-     *                components
+     * @param data   The buffer holding the raw bytes
+     * @param length The number of valid bytes in the buffer
+     * @return The length of the leading partial line
      */
-    private static void fetchLogFile(TabInfo tabInfo) {
-        Session session = null;
-        ChannelExec channel = null;
-        BufferedReader reader = null;
-
-        try {
-            JSch jsch = new JSch();
-            session = jsch.getSession(tabInfo.user, tabInfo.host, 22);
-            session.setPassword(tabInfo.password);
-
-            java.util.Properties config = new java.util.Properties();
-            config.put("StrictHostKeyChecking", "no");
-            session.setConfig(config);
-            session.connect(30000);
-
-            // Check if file exists
-            channel = (ChannelExec) session.openChannel("exec");
-            channel.setCommand("test -f " + tabInfo.logFile + " && echo 'EXISTS' || echo 'NOT_FOUND'");
-
-            reader = new BufferedReader(new InputStreamReader(channel.getInputStream(), StandardCharsets.UTF_8));
-            channel.connect();
-
-            String fileExists = reader.readLine();
-            if (!"EXISTS".equals(fileExists)) {
-                updateStatus(tabInfo, true, "Log file not found");
-                return;
+    private static int partialLineLength(byte[] data, int length) {
+        for (int i = 0; i < length; i++) {
+            if (data[i] == '\n') {
+                return i + 1;
             }
+        }
+        return 0;
+    }
 
-            // Get file size
-            channel.disconnect();
-            channel = (ChannelExec) session.openChannel("exec");
-            channel.setCommand("wc -c < " + tabInfo.logFile);
+    /**
+     * Loads the chunk of the log just before the oldest loaded line and
+     * prepends it to the tab.
+     *
+     * Called on the EDT when the user scrolls to the top or searches past the
+     * loaded content. At most BACKFILL_CHUNK_BYTES are read per call, cut at a
+     * line boundary, and only one backfill per tab runs at a time. Does
+     * nothing once the start of the file has been reached.
+     *
+     * @param tabInfo The tab to backfill
+     */
+    private static void backfillLog(TabInfo tabInfo) {
+        if (tabInfo.loadedFrom <= 0 || tabInfo.backfilling) {
+            return;
+        }
+        tabInfo.backfilling = true;
+        updateStatus(tabInfo, tabInfo.isConnected.get(), "Loading older lines...");
 
-            reader = new BufferedReader(new InputStreamReader(channel.getInputStream(), StandardCharsets.UTF_8));
-            channel.connect();
+        SwingWorker<List<String>, Void> worker = new SwingWorker<>() {
+            @Override
+            protected List<String> doInBackground() throws Exception {
+                List<String> lines = new ArrayList<>();
+                synchronized (tabInfo.fetchResult) {
+                    long end = tabInfo.loadedFrom;
+                    if (end <= 0) {
+                        return lines;
+                    }
+                    long start = Math.max(0, end - BACKFILL_CHUNK_BYTES);
 
-            String fileSizeStr = reader.readLine();
-            long currentSize = Long.parseLong(fileSizeStr.trim());
+                    Session session = null;
+                    try {
+                        session = sessionPool.acquire(tabInfo);
+                        FetchResult result = tabInfo.fetchResult;
+                        logSourceFor(tabInfo).fetchRange(session, tabInfo.logFile, start, end - start, result);
+                        if (!result.exists || result.size < end) {
+                            // The file was replaced since the initial load; nothing older belongs to it
+                            tabInfo.loadedFrom = 0;
+                            return lines;
+                        }
 
-            if (currentSize == tabInfo.lastModified) {
-                updateStatus(tabInfo, true, "No changes");
-                return;
+                        int skip = start > 0 ? partialLineLength(result.data, result.length) : 0;
+                        // The chunk ends on a line boundary; decode it apart from the live tail
+                        LineAssembler assembler = new LineAssembler();
+                        assembler.feed(ByteBuffer.wrap(result.data, skip, result.length - skip), lines::add);
+                        assembler.flush(lines::add);
+                        tabInfo.loadedFrom = start + skip;
+                    } catch (JSchException e) {
+                        sessionPool.invalidate(session);
+                        session = null;
+                        throw e;
+                    } finally {
+                        sessionPool.release(session);
+                    }
+                }
+                return lines;
             }
 
-            // Read new content using base64 encoding to preserve special characters
-            channel.disconnect();
-            channel = (ChannelExec) session.openChannel("exec");
-
-            String command;
-            if (tabInfo.lastModified == 0) {
-                command = "base64 " + tabInfo.logFile;
-            } else {
-                long bytesToRead = currentSize - tabInfo.lastModified;
-                command = String.format("tail -c %d %s | base64", bytesToRead, tabInfo.logFile);
+            @Override
+            protected void done() {
+                tabInfo.backfilling = false;
+                try {
+                    prependLines(tabInfo, get());
+                    updateStatus(tabInfo, tabInfo.isConnected.get(),
+                            tabInfo.loadedFrom > 0 ? "Loaded older lines" : "Reached start of log");
+                } catch (Exception e) {
+                    updateStatus(tabInfo, tabInfo.isConnected.get(), "Error loading older lines: " + e.getMessage());
+                    e.printStackTrace();
+                }
             }
+        };
+        worker.execute();
+    }
 
-            channel.setCommand(command);
-            reader = new BufferedReader(new InputStreamReader(channel.getInputStream(), StandardCharsets.UTF_8));
-            channel.connect();
-
-            StringBuilder base64Content = new StringBuilder();
-            String line;
-            while ((line = reader.readLine()) != null) {
-                base64Content.append(line);
+    /**
+     * Inserts backfilled lines above the current content, applying the same
+     * blank-line and timestamp handling as new lines. The caret is placed at
+     * the first previously visible line so the view stays where the user was
+     * reading. Must be called on the EDT.
+     *
+     * When they arrived is not known for older lines, so they are stored
+     * with an unknown time. Only the lines the store accepts are shown, so
+     * the document never holds lines the store lacks. Duplicate filtering
+     * runs among the backfilled lines only, with a filter of their own, so
+     * older content never hides the next live occurrence of a line.
+     *
+     * @param tabInfo The tab to prepend to
+     * @param lines   The older lines in file order
+     */
+    private static void prependLines(TabInfo tabInfo, List<String> lines) {
+        List<String> stored = new ArrayList<>();
+        for (String line : lines) {
+            if (line.trim().isEmpty() || line.contains("JNI_OnLoad called")) {
+                continue;
             }
+            stored.add(TimestampPrefix.strip(line));
+        }
 
-            // Decode base64 content
-            byte[] decodedBytes = Base64.getDecoder().decode(base64Content.toString());
-            String decodedContent = new String(decodedBytes, StandardCharsets.UTF_8);
-
-            if (!decodedContent.isEmpty()) {
-                String[] lines = decodedContent.split("\n");
-                for (String logLine : lines) {
-                    if (!logLine.trim().isEmpty() && !logLine.contains("JNI_OnLoad called")) {
-                        appendToLogWithFiltering(tabInfo, logLine, true);
-                    }
-                }
+        // Newest first, so a full store keeps the lines nearest the current content
+        int added = 0;
+        for (int i = stored.size() - 1; i >= 0; i--) {
+            if (!tabInfo.lineStore.addFirst(LogTimestamps.UNKNOWN, stored.get(i))) {
+                break;
             }
+            added++;
+        }
+        restartRerender(tabInfo);
+        if (tabInfo.virtualView) {
+            tabInfo.logViewport.linesPrepended(added);
+            return;
+        }
 
-            tabInfo.lastModified = currentSize;
-            updateStatus(tabInfo, true, "Updated");
+        StringBuilder display = new StringBuilder();
+        String timestamp = LogTimestamps.format(LogTimestamps.UNKNOWN);
+        DuplicateFilter filter = tabInfo.filterDuplicates ? tabInfo.createDuplicateFilter() : null;
+        long[] ids = new long[added];
+        int shown = 0;
+        for (int i = 0; i < added; i++) {
+            String actualContent = stored.get(stored.size() - added + i);
+            if (filter != null && filter.isDuplicate(actualContent)) {
+                continue;
+            }
+            ids[shown++] = tabInfo.lineStore.firstId() + i;
 
-        } catch (JSchException e) {
-            updateStatus(tabInfo, false, "Connection error: " + e.getMessage());
-            e.printStackTrace();
-        } catch (IOException e) {
-            updateStatus(tabInfo, false, "File read error: " + e.getMessage());
-            e.printStackTrace();
-        } finally {
-            try {
-                if (reader != null)
-                    reader.close();
-                if (channel != null)
-                    channel.disconnect();
-                if (session != null)
-                    session.disconnect();
-            } catch (IOException e) {
-                e.printStackTrace();
+            if (tabInfo.showTimestamp) {
+                display.append('[').append(timestamp).append("] ");
             }
+            display.append(actualContent).append('\n');
         }
+
+        if (display.length() == 0) {
+            return;
+        }
+        tabInfo.textArea.insert(display.toString(), 0);
+        tabInfo.rowIds.addFirst(ids, shown);
+        tabInfo.repeatCollapser.shift(display.length());
+        tabInfo.textArea.setCaretPosition(display.length());
     }
 
     /**
-     * Refreshes the log content for the given tab in a background thread.
+     * Refreshes the log content for the given tab in the background.
      * 
-     * This method creates a SwingWorker to fetch the log file content
-     * asynchronously,
-     * preventing UI freezes during the fetch operation.
+     * The fetch runs on the shared poll scheduler, preventing UI freezes and
+     * respecting the per-host fetch limit. A tab that is being polled has its
+     * next poll pulled forward. Streaming tabs reopen their stream instead.
      *
      * @param tabInfo The TabInfo object containing the tab's configuration and
      *                content
      */
     private static void refreshLog(TabInfo tabInfo) {
-        SwingWorker<Void, Void> worker = new SwingWorker<>() {
-            @Override
-            protected Void doInBackground() {
-                fetchLogFile(tabInfo);
-                return null;
-            }
-        };
-        worker.execute();
+        if (tabInfo.sourceMode == SourceMode.STREAM) {
+            // A poll would race the stream for the same bytes; reopen it instead
+            startFileMonitoring(tabInfo);
+            return;
+        }
+
+        pollScheduler.pollNow(tabInfo);
     }
 
     /**
-     * Starts monitoring a log file for changes in a background thread.
-     * 
-     * This method creates a daemon thread that periodically checks for new content
-     * in the specified log file. If a monitoring thread already exists for the tab,
-     * it is interrupted before starting a new one.
+     * Starts monitoring a log file for changes.
      * 
-     * The monitoring thread:
-     * - Runs every 2 seconds
-     * - Fetches new content if available
-     * - Continues until interrupted
-     * - Is marked as a daemon thread to not prevent JVM shutdown
+     * Any existing monitoring for the tab is stopped first. Depending on the
+     * tab's source mode, this either:
+     * - POLL and SFTP: schedules the tab on the shared PollScheduler, which
+     * fetches new content at an interval that backs off from pollMinInterval
+     * to pollMaxInterval while the file is idle
+     * - STREAM: opens a TailFollower that keeps one `tail -F` channel open and
+     * appends lines as they arrive, reconnecting from the last byte offset if
+     * the channel drops
      *
      * @param tabInfo The TabInfo object containing the tab's configuration and
      *                content
      */
     private static void startFileMonitoring(TabInfo tabInfo) {
-        // Stop existing monitoring thread if it exists
-        if (tabInfo.monitoringThread != null) {
-            tabInfo.monitoringThread.interrupt();
+        stopFileMonitoring(tabInfo);
+
+        if (tabInfo.sourceMode == SourceMode.STREAM) {
+            tabInfo.tailFollower = new TailFollower(tabInfo, sessionPool,
+                    line -> ingestLine(tabInfo, line),
+                    (connected, message) -> updateStatus(tabInfo, connected, message));
+            tabInfo.tailFollower.start();
+            return;
         }
 
-        tabInfo.monitoringThread = new Thread(() -> {
-            while (!Thread.currentThread().isInterrupted()) {
-                try {
-                    fetchLogFile(tabInfo);
-                    Thread.sleep(2000);
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                    break;
-                }
-            }
-        });
-        tabInfo.monitoringThread.setDaemon(true);
-        tabInfo.monitoringThread.start();
+        pollScheduler.start(tabInfo);
+    }
+
+    /**
+     * Stops any scheduled polling, streaming channel or SFTP channel held open
+     * for a tab.
+     *
+     * @param tabInfo The tab to stop monitoring
+     */
+    private static void stopFileMonitoring(TabInfo tabInfo) {
+        pollScheduler.stop(tabInfo);
+        if (tabInfo.tailFollower != null) {
+            tabInfo.tailFollower.stop();
+            tabInfo.tailFollower = null;
+        }
+        if (tabInfo.sftpLogSource != null) {
+            tabInfo.sftpLogSource.close();
+        }
     }
 
     /**
@@ -1808,6 +2754,12 @@ public class SCPLogViewer {
         duplicateFilterBox.setForeground(isDarkMode ? DARK_MODE_TEXT : Color.BLACK);
         duplicateFilterBox.addActionListener(e -> toggleDuplicateFiltering());
 
+        collapseRepeatsBox = new JCheckBox("Collapse Repeats");
+        collapseRepeatsBox.setBackground(toolbar.getBackground());
+        collapseRepeatsBox.setForeground(isDarkMode ? DARK_MODE_TEXT : Color.BLACK);
+        collapseRepeatsBox.setToolTipText("Show consecutive identical lines once, with a repeat counter");
+        collapseRepeatsBox.addActionListener(e -> toggleRepeatCollapsing());
+
         wordWrapBox = new JCheckBox("Word Wrap");
         wordWrapBox.setBackground(toolbar.getBackground());
         wordWrapBox.setForeground(isDarkMode ? DARK_MODE_TEXT : Color.BLACK);
@@ -1823,6 +2775,7 @@ public class SCPLogViewer {
         TabInfo currentTab = getCurrentTab();
         if (currentTab != null) {
             duplicateFilterBox.setSelected(currentTab.filterDuplicates);
+            collapseRepeatsBox.setSelected(currentTab.collapseRepeats);
             wordWrapBox.setSelected(currentTab.wordWrap);
             showTimestampBox.setSelected(currentTab.showTimestamp);
         }
@@ -1832,12 +2785,14 @@ public class SCPLogViewer {
             TabInfo selectedTab = getCurrentTab();
             if (selectedTab != null) {
                 duplicateFilterBox.setSelected(selectedTab.filterDuplicates);
+                collapseRepeatsBox.setSelected(selectedTab.collapseRepeats);
                 wordWrapBox.setSelected(selectedTab.wordWrap);
                 showTimestampBox.setSelected(selectedTab.showTimestamp);
             }
         });
 
         filterPanel.add(duplicateFilterBox);
+        filterPanel.add(collapseRepeatsBox);
         filterPanel.add(wordWrapBox);
         filterPanel.add(showTimestampBox);
 
@@ -2369,11 +3324,11 @@ public class SCPLogViewer {
      * Clears the log file on the remote Linux machine and resets the tab's content.
      * 
      * This method:
-     * 1. Establishes SSH connection to remote host
+     * 1. Checks out a pooled SSH session for the remote host
      * 2. Executes truncate command to clear log file
      * 3. Resets tab content and tracking variables:
      * - Clears text area
-     * - Resets raw content buffer
+     * - Clears the line store
      * - Resets last modified timestamp
      * - Clears seen log entries cache
      * 4. Updates status to indicate completion
@@ -2385,37 +3340,52 @@ public class SCPLogViewer {
         ChannelExec channel = null;
 
         try {
-            JSch jsch = new JSch();
-            session = jsch.getSession(tabInfo.user, tabInfo.host, 22);
-            session.setPassword(tabInfo.password);
-
-            java.util.Properties config = new java.util.Properties();
-            config.put("StrictHostKeyChecking", "no");
-            session.setConfig(config);
-            session.connect(30000);
+            session = sessionPool.acquire(tabInfo);
 
             channel = (ChannelExec) session.openChannel("exec");
             channel.setCommand("truncate -s 0 " + tabInfo.logFile);
             channel.connect();
 
             // Clear all content including raw content
+            tabInfo.ingestQueue.clear();
             tabInfo.textArea.setText("");
-            tabInfo.rawLogContent = new StringBuilder();
+            tabInfo.rowIds.clear();
+            tabInfo.repeatCollapser.reset();
+            tabInfo.lineStore.clear();
+            restartRerender(tabInfo);
+            if (tabInfo.virtualView) {
+                tabInfo.logViewport.rebuild();
+            }
+            tabInfo.heldFrom = tabInfo.lineStore.addedCount();
+            tabInfo.followTail = true;
+            updateNewLinesIndicator(tabInfo);
             tabInfo.lastModified = 0;
+            tabInfo.loadedFrom = 0;
+            tabInfo.headFingerprintLength = 0;
+            synchronized (tabInfo.fetchResult) {
+                tabInfo.lineAssembler.reset();
+            }
             tabInfo.textArea.setCaretPosition(0);
             // Clear the seen contents when logs are cleared
-            tabInfo.seenLogContents.clear();
+            tabInfo.duplicateFilter.clear();
+
+            // Reopen the stream so it follows the truncated file from offset 0
+            if (tabInfo.tailFollower != null) {
+                startFileMonitoring(tabInfo);
+            }
 
             updateStatus(tabInfo, true, "Log cleared");
+        } catch (JSchException e) {
+            sessionPool.invalidate(session);
+            session = null;
+            updateStatus(tabInfo, false, "Error clearing log: " + e.getMessage());
         } catch (Exception e) {
             updateStatus(tabInfo, false, "Error clearing log: " + e.getMessage());
         } finally {
             if (channel != null) {
                 channel.disconnect();
             }
-            if (session != null) {
-                session.disconnect();
-            }
+            sessionPool.release(session);
         }
     }
 
@@ -2496,15 +3466,19 @@ public class SCPLogViewer {
             try {
                 StringBuilder content = new StringBuilder();
                 content.append("Log Export from SCP Log Viewer\n");
-                content.append("Exported on: ").append(new SimpleDateFormat("yyyy-MM-dd HH:mm:ss").format(new Date()))
+                content.append("Exported on: ").append(LogTimestamps.now())
                         .append("\n");
                 content.append("Host: ").append(currentTab.host).append("\n");
                 content.append("Log File: ").append(currentTab.logFile).append("\n");
                 content.append("\n=== Log Content ===\n\n");
 
-                // Use the raw content if available, otherwise fall back to text area content
-                if (currentTab.rawLogContent != null && currentTab.rawLogContent.length() > 0) {
-                    content.append(currentTab.rawLogContent);
+                // Use the stored lines if available, otherwise fall back to text area content
+                LineStore store = currentTab.lineStore;
+                if (store.size() > 0) {
+                    for (int i = 0; i < store.size(); i++) {
+                        content.append('[').append(LogTimestamps.format(store.time(i))).append("] ")
+                                .append(store.line(i)).append('\n');
+                    }
                 } else {
                     content.append(currentTab.textArea.getText());
                 }
@@ -2543,21 +3517,10 @@ public class SCPLogViewer {
 
         // Clear the seen contents when disabling filtering
         if (!currentTab.filterDuplicates) {
-            currentTab.seenLogContents.clear();
+            currentTab.duplicateFilter.clear();
         }
 
-        // Only reprocess if there's content
-        if (currentTab.rawLogContent != null && currentTab.rawLogContent.length() > 0) {
-            currentTab.textArea.setText("");
-            currentTab.seenLogContents.clear(); // Reset seen contents when reprocessing
-            String[] lines = currentTab.rawLogContent.toString().split("\n");
-
-            for (String line : lines) {
-                if (!line.trim().isEmpty()) {
-                    appendToLogWithFiltering(currentTab, line, false);
-                }
-            }
-        }
+        rerenderFromStore(currentTab);
 
         // Update checkbox state
         Component[] components = ((Container) tabbedPane.getParent()).getComponents();
@@ -2584,6 +3547,34 @@ public class SCPLogViewer {
         }
     }
 
+    /**
+     * Toggles collapsing of consecutive repeated lines for the current tab.
+     *
+     * When enabled, a line identical to the one before it is not appended;
+     * instead a "[repeated N times]" counter on the shown line is updated in
+     * place. Existing content is re-rendered from the line store either way, so
+     * disabling the mode expands collapsed runs again. Saves the configuration
+     * after toggling.
+     */
+    private static void toggleRepeatCollapsing() {
+        TabInfo currentTab = getCurrentTab();
+        if (currentTab == null)
+            return;
+
+        currentTab.collapseRepeats = !currentTab.collapseRepeats;
+        currentTab.repeatCollapser.reset();
+
+        rerenderFromStore(currentTab);
+
+        collapseRepeatsBox.setSelected(currentTab.collapseRepeats);
+
+        try {
+            saveConfiguration();
+        } catch (JSONException e) {
+            e.printStackTrace();
+        }
+    }
+
     /**
      * Toggles word wrapping for the current tab.
      * 
@@ -2635,6 +3626,7 @@ public class SCPLogViewer {
      * - Port number
      * - Username
      * - Password
+     * - Source mode (poll, SFTP poll or stream)
      * - Theme-aware styling that adapts to dark/light mode
      * - Input validation for port number
      * - Save/Cancel buttons with hover effects
@@ -2657,7 +3649,7 @@ public class SCPLogViewer {
     private static void showSettingsDialog() {
         JDialog settingsDialog = new JDialog((JFrame) SwingUtilities.getWindowAncestor(tabbedPane), "Settings", true);
         settingsDialog.setLayout(new BorderLayout());
-        settingsDialog.setSize(500, 400);
+        settingsDialog.setSize(500, 640);
         settingsDialog.setLocationRelativeTo(null);
         settingsDialog.setBackground(isDarkMode ? DARK_MODE_BACKGROUND : Color.WHITE);
 
@@ -2753,6 +3745,186 @@ public class SCPLogViewer {
         gbc.gridwidth = 2;
         connectionPanel.add(passwordField, gbc);
 
+        // Source mode settings
+        JLabel sourceModeLabel = new JLabel("Source:");
+        sourceModeLabel.setForeground(isDarkMode ? DARK_MODE_TEXT : Color.BLACK);
+        sourceModeLabel.setFont(sourceModeLabel.getFont().deriveFont(Font.BOLD));
+        gbc.gridx = 0;
+        gbc.gridy = 4;
+        gbc.gridwidth = 1;
+        connectionPanel.add(sourceModeLabel, gbc);
+
+        JComboBox<SourceMode> sourceModeBox = new JComboBox<>(SourceMode.values());
+        sourceModeBox.setSelectedItem(tabInfo.sourceMode);
+        sourceModeBox.setBackground(isDarkMode ? new Color(60, 60, 60) : Color.WHITE);
+        sourceModeBox.setForeground(isDarkMode ? DARK_MODE_TEXT : Color.BLACK);
+        sourceModeBox.setToolTipText(
+                "Poll with a shell command, poll over SFTP, or stream over a persistent tail -F channel");
+        gbc.gridx = 1;
+        gbc.gridy = 4;
+        gbc.gridwidth = 2;
+        connectionPanel.add(sourceModeBox, gbc);
+
+        // Poll interval settings
+        JLabel pollIntervalLabel = new JLabel("Poll interval (ms):");
+        pollIntervalLabel.setForeground(isDarkMode ? DARK_MODE_TEXT : Color.BLACK);
+        pollIntervalLabel.setFont(pollIntervalLabel.getFont().deriveFont(Font.BOLD));
+        gbc.gridx = 0;
+        gbc.gridy = 5;
+        gbc.gridwidth = 1;
+        connectionPanel.add(pollIntervalLabel, gbc);
+
+        JTextField pollMinField = new JTextField(String.valueOf(tabInfo.pollMinInterval), 6);
+        pollMinField.setBackground(isDarkMode ? new Color(60, 60, 60) : Color.WHITE);
+        pollMinField.setForeground(isDarkMode ? DARK_MODE_TEXT : Color.BLACK);
+        pollMinField.setBorder(BorderFactory.createCompoundBorder(
+                BorderFactory.createLineBorder(isDarkMode ? new Color(100, 100, 100) : new Color(180, 180, 180)),
+                BorderFactory.createEmptyBorder(5, 5, 5, 5)));
+        pollMinField.setToolTipText("Fastest interval, used while the log is growing");
+        gbc.gridx = 1;
+        gbc.gridy = 5;
+        connectionPanel.add(pollMinField, gbc);
+
+        JTextField pollMaxField = new JTextField(String.valueOf(tabInfo.pollMaxInterval), 6);
+        pollMaxField.setBackground(isDarkMode ? new Color(60, 60, 60) : Color.WHITE);
+        pollMaxField.setForeground(isDarkMode ? DARK_MODE_TEXT : Color.BLACK);
+        pollMaxField.setBorder(BorderFactory.createCompoundBorder(
+                BorderFactory.createLineBorder(isDarkMode ? new Color(100, 100, 100) : new Color(180, 180, 180)),
+                BorderFactory.createEmptyBorder(5, 5, 5, 5)));
+        pollMaxField.setToolTipText("Slowest interval, reached after the log has been idle for a while");
+        gbc.gridx = 2;
+        gbc.gridy = 5;
+        connectionPanel.add(pollMaxField, gbc);
+
+        JLabel pollBackgroundLabel = new JLabel("Background poll (ms):");
+        pollBackgroundLabel.setForeground(isDarkMode ? DARK_MODE_TEXT : Color.BLACK);
+        pollBackgroundLabel.setFont(pollBackgroundLabel.getFont().deriveFont(Font.BOLD));
+        gbc.gridx = 0;
+        gbc.gridy = 6;
+        gbc.gridwidth = 1;
+        connectionPanel.add(pollBackgroundLabel, gbc);
+
+        JTextField pollBackgroundField = new JTextField(String.valueOf(tabInfo.pollBackgroundInterval), 6);
+        pollBackgroundField.setBackground(isDarkMode ? new Color(60, 60, 60) : Color.WHITE);
+        pollBackgroundField.setForeground(isDarkMode ? DARK_MODE_TEXT : Color.BLACK);
+        pollBackgroundField.setBorder(BorderFactory.createCompoundBorder(
+                BorderFactory.createLineBorder(isDarkMode ? new Color(100, 100, 100) : new Color(180, 180, 180)),
+                BorderFactory.createEmptyBorder(5, 5, 5, 5)));
+        pollBackgroundField.setToolTipText("Fastest interval while another tab is selected");
+        gbc.gridx = 1;
+        gbc.gridy = 6;
+        connectionPanel.add(pollBackgroundField, gbc);
+
+        // Rotation settings
+        JCheckBox drainRotatedBox = new JCheckBox("Read rest of rotated .1 file after rotation",
+                tabInfo.drainRotated);
+        drainRotatedBox.setBackground(isDarkMode ? DARK_MODE_BACKGROUND : Color.WHITE);
+        drainRotatedBox.setForeground(isDarkMode ? DARK_MODE_TEXT : Color.BLACK);
+        gbc.gridx = 1;
+        gbc.gridy = 7;
+        gbc.gridwidth = 2;
+        connectionPanel.add(drainRotatedBox, gbc);
+
+        JCheckBox virtualViewBox = new JCheckBox("Virtualized view for very large logs (no word wrap)",
+                tabInfo.virtualView);
+        virtualViewBox.setBackground(isDarkMode ? DARK_MODE_BACKGROUND : Color.WHITE);
+        virtualViewBox.setForeground(isDarkMode ? DARK_MODE_TEXT : Color.BLACK);
+        gbc.gridx = 1;
+        gbc.gridy = 11;
+        gbc.gridwidth = 2;
+        connectionPanel.add(virtualViewBox, gbc);
+
+        // Duplicate filter settings
+        JLabel dedupLabel = new JLabel("Duplicates:");
+        dedupLabel.setForeground(isDarkMode ? DARK_MODE_TEXT : Color.BLACK);
+        dedupLabel.setFont(dedupLabel.getFont().deriveFont(Font.BOLD));
+        gbc.gridx = 0;
+        gbc.gridy = 8;
+        gbc.gridwidth = 1;
+        connectionPanel.add(dedupLabel, gbc);
+
+        JComboBox<DuplicateFilterStrategy> dedupStrategyBox = new JComboBox<>(DuplicateFilterStrategy.values());
+        dedupStrategyBox.setSelectedItem(tabInfo.dedupStrategy);
+        dedupStrategyBox.setBackground(isDarkMode ? new Color(60, 60, 60) : Color.WHITE);
+        dedupStrategyBox.setForeground(isDarkMode ? DARK_MODE_TEXT : Color.BLACK);
+        dedupStrategyBox.setToolTipText("How the duplicate filter remembers lines it has already shown");
+        gbc.gridx = 1;
+        gbc.gridy = 8;
+        connectionPanel.add(dedupStrategyBox, gbc);
+
+        JTextField dedupMemoryField = new JTextField(String.valueOf(tabInfo.dedupMemoryKb), 6);
+        dedupMemoryField.setBackground(isDarkMode ? new Color(60, 60, 60) : Color.WHITE);
+        dedupMemoryField.setForeground(isDarkMode ? DARK_MODE_TEXT : Color.BLACK);
+        dedupMemoryField.setBorder(BorderFactory.createCompoundBorder(
+                BorderFactory.createLineBorder(isDarkMode ? new Color(100, 100, 100) : new Color(180, 180, 180)),
+                BorderFactory.createEmptyBorder(5, 5, 5, 5)));
+        dedupMemoryField.setToolTipText("Memory budget of the duplicate filter in KB");
+        gbc.gridx = 2;
+        gbc.gridy = 8;
+        connectionPanel.add(dedupMemoryField, gbc);
+
+        JLabel dedupTuningLabel = new JLabel("Window (s) / FP rate:");
+        dedupTuningLabel.setForeground(isDarkMode ? DARK_MODE_TEXT : Color.BLACK);
+        dedupTuningLabel.setFont(dedupTuningLabel.getFont().deriveFont(Font.BOLD));
+        gbc.gridx = 0;
+        gbc.gridy = 9;
+        gbc.gridwidth = 1;
+        connectionPanel.add(dedupTuningLabel, gbc);
+
+        JTextField dedupWindowField = new JTextField(String.valueOf(tabInfo.dedupWindowSeconds), 6);
+        dedupWindowField.setBackground(isDarkMode ? new Color(60, 60, 60) : Color.WHITE);
+        dedupWindowField.setForeground(isDarkMode ? DARK_MODE_TEXT : Color.BLACK);
+        dedupWindowField.setBorder(BorderFactory.createCompoundBorder(
+                BorderFactory.createLineBorder(isDarkMode ? new Color(100, 100, 100) : new Color(180, 180, 180)),
+                BorderFactory.createEmptyBorder(5, 5, 5, 5)));
+        dedupWindowField.setToolTipText("How long the time window filter remembers a line, in seconds");
+        gbc.gridx = 1;
+        gbc.gridy = 9;
+        connectionPanel.add(dedupWindowField, gbc);
+
+        JTextField dedupFalsePositiveField = new JTextField(String.valueOf(tabInfo.dedupFalsePositiveRate), 6);
+        dedupFalsePositiveField.setBackground(isDarkMode ? new Color(60, 60, 60) : Color.WHITE);
+        dedupFalsePositiveField.setForeground(isDarkMode ? DARK_MODE_TEXT : Color.BLACK);
+        dedupFalsePositiveField.setBorder(BorderFactory.createCompoundBorder(
+                BorderFactory.createLineBorder(isDarkMode ? new Color(100, 100, 100) : new Color(180, 180, 180)),
+                BorderFactory.createEmptyBorder(5, 5, 5, 5)));
+        dedupFalsePositiveField.setToolTipText(
+                "Share of new lines the Bloom filter may hide by mistake, e.g. 0.001");
+        gbc.gridx = 2;
+        gbc.gridy = 9;
+        connectionPanel.add(dedupFalsePositiveField, gbc);
+
+        // Scrollback settings
+        JLabel scrollbackLabel = new JLabel("Scrollback (lines/MB):");
+        scrollbackLabel.setForeground(isDarkMode ? DARK_MODE_TEXT : Color.BLACK);
+        scrollbackLabel.setFont(scrollbackLabel.getFont().deriveFont(Font.BOLD));
+        gbc.gridx = 0;
+        gbc.gridy = 10;
+        gbc.gridwidth = 1;
+        connectionPanel.add(scrollbackLabel, gbc);
+
+        JTextField scrollbackLinesField = new JTextField(String.valueOf(tabInfo.scrollbackLines), 6);
+        scrollbackLinesField.setBackground(isDarkMode ? new Color(60, 60, 60) : Color.WHITE);
+        scrollbackLinesField.setForeground(isDarkMode ? DARK_MODE_TEXT : Color.BLACK);
+        scrollbackLinesField.setBorder(BorderFactory.createCompoundBorder(
+                BorderFactory.createLineBorder(isDarkMode ? new Color(100, 100, 100) : new Color(180, 180, 180)),
+                BorderFactory.createEmptyBorder(5, 5, 5, 5)));
+        scrollbackLinesField.setToolTipText("Maximum number of lines kept; the oldest lines are removed beyond it");
+        gbc.gridx = 1;
+        gbc.gridy = 10;
+        connectionPanel.add(scrollbackLinesField, gbc);
+
+        JTextField scrollbackMbField = new JTextField(String.valueOf(tabInfo.scrollbackBytes / (1024 * 1024)), 6);
+        scrollbackMbField.setBackground(isDarkMode ? new Color(60, 60, 60) : Color.WHITE);
+        scrollbackMbField.setForeground(isDarkMode ? DARK_MODE_TEXT : Color.BLACK);
+        scrollbackMbField.setBorder(BorderFactory.createCompoundBorder(
+                BorderFactory.createLineBorder(isDarkMode ? new Color(100, 100, 100) : new Color(180, 180, 180)),
+                BorderFactory.createEmptyBorder(5, 5, 5, 5)));
+        scrollbackMbField.setToolTipText("Maximum memory in MB for the kept lines");
+        gbc.gridx = 2;
+        gbc.gridy = 10;
+        connectionPanel.add(scrollbackMbField, gbc);
+
         // Add connection panel to tabs
         settingsTabs.addTab("Connection", connectionPanel);
 
@@ -2816,18 +3988,105 @@ public class SCPLogViewer {
         });
 
         saveButton.addActionListener(e -> {
-            // Update the current tab's settings
-            tabInfo.host = hostField.getText();
+            // Validate every field before changing anything, so a rejected value leaves the tab as it was
+            int newPort;
             try {
-                int newPort = Integer.parseInt(portField.getText());
-                tabInfo.port = newPort;
+                newPort = Integer.parseInt(portField.getText());
             } catch (NumberFormatException ex) {
                 JOptionPane.showMessageDialog(settingsDialog, "Invalid port number", "Error",
                         JOptionPane.ERROR_MESSAGE);
                 return;
             }
+            long newPollMin;
+            long newPollMax;
+            long newPollBackground;
+            try {
+                newPollMin = Long.parseLong(pollMinField.getText().trim());
+                newPollMax = Long.parseLong(pollMaxField.getText().trim());
+                newPollBackground = Long.parseLong(pollBackgroundField.getText().trim());
+                if (newPollMin < 100 || newPollMax < newPollMin || newPollBackground < newPollMin) {
+                    throw new NumberFormatException();
+                }
+            } catch (NumberFormatException ex) {
+                JOptionPane.showMessageDialog(settingsDialog,
+                        "Invalid poll interval: minimum must be at least 100 ms and not above the maximum or"
+                                + " background interval", "Error",
+                        JOptionPane.ERROR_MESSAGE);
+                return;
+            }
+            long newDedupMemory;
+            try {
+                newDedupMemory = Long.parseLong(dedupMemoryField.getText().trim());
+                if (newDedupMemory < 16) {
+                    throw new NumberFormatException();
+                }
+            } catch (NumberFormatException ex) {
+                JOptionPane.showMessageDialog(settingsDialog,
+                        "Invalid duplicate filter memory: must be at least 16 KB", "Error",
+                        JOptionPane.ERROR_MESSAGE);
+                return;
+            }
+            long newDedupWindow;
+            double newDedupFalsePositiveRate;
+            try {
+                newDedupWindow = Long.parseLong(dedupWindowField.getText().trim());
+                newDedupFalsePositiveRate = Double.parseDouble(dedupFalsePositiveField.getText().trim());
+                if (newDedupWindow < 1 || !(newDedupFalsePositiveRate > 0 && newDedupFalsePositiveRate < 0.5)) {
+                    throw new NumberFormatException();
+                }
+            } catch (NumberFormatException ex) {
+                JOptionPane.showMessageDialog(settingsDialog,
+                        "Invalid duplicate filter window or false positive rate: the window must be at least"
+                                + " 1 s and the rate between 0 and 0.5", "Error",
+                        JOptionPane.ERROR_MESSAGE);
+                return;
+            }
+            int newScrollbackLines;
+            long newScrollbackMb;
+            try {
+                newScrollbackLines = Integer.parseInt(scrollbackLinesField.getText().trim());
+                newScrollbackMb = Long.parseLong(scrollbackMbField.getText().trim());
+                if (newScrollbackLines < 1000 || newScrollbackMb < 1) {
+                    throw new NumberFormatException();
+                }
+            } catch (NumberFormatException ex) {
+                JOptionPane.showMessageDialog(settingsDialog,
+                        "Invalid scrollback: at least 1000 lines and 1 MB", "Error",
+                        JOptionPane.ERROR_MESSAGE);
+                return;
+            }
+
+            // Update the current tab's settings
+            tabInfo.host = hostField.getText();
+            tabInfo.port = newPort;
+            tabInfo.pollMinInterval = newPollMin;
+            tabInfo.pollMaxInterval = newPollMax;
+            tabInfo.pollBackgroundInterval = newPollBackground;
+            tabInfo.scrollbackLines = newScrollbackLines;
+            tabInfo.scrollbackBytes = newScrollbackMb * 1024 * 1024;
+            tabInfo.lineStore.setLimits(tabInfo.scrollbackLines, tabInfo.scrollbackBytes);
+            trimScrollback(tabInfo);
+            DuplicateFilterStrategy newStrategy = (DuplicateFilterStrategy) dedupStrategyBox.getSelectedItem();
+            if (newStrategy != tabInfo.dedupStrategy || newDedupMemory != tabInfo.dedupMemoryKb
+                    || newDedupWindow != tabInfo.dedupWindowSeconds
+                    || newDedupFalsePositiveRate != tabInfo.dedupFalsePositiveRate) {
+                tabInfo.dedupStrategy = newStrategy;
+                tabInfo.dedupMemoryKb = newDedupMemory;
+                tabInfo.dedupWindowSeconds = newDedupWindow;
+                tabInfo.dedupFalsePositiveRate = newDedupFalsePositiveRate;
+                tabInfo.duplicateFilter = tabInfo.createDuplicateFilter();
+                restartRerender(tabInfo);
+            }
             tabInfo.user = usernameField.getText();
             tabInfo.password = new String(passwordField.getPassword());
+            tabInfo.sourceMode = (SourceMode) sourceModeBox.getSelectedItem();
+            tabInfo.drainRotated = drainRotatedBox.isSelected();
+            if (virtualViewBox.isSelected() != tabInfo.virtualView) {
+                showVirtualView(tabInfo, virtualViewBox.isSelected());
+            } else if (tabInfo.virtualView) {
+                // Pick up a changed duplicate filter or scrollback limit
+                tabInfo.logViewport.rebuild();
+            }
 
             // Update the main form fields to reflect the new settings
             if (hostField != null)
@@ -2844,9 +4103,6 @@ public class SCPLogViewer {
                 saveConfiguration();
 
                 // Restart monitoring with new settings
-                if (tabInfo.monitoringThread != null) {
-                    tabInfo.monitoringThread.interrupt();
-                }
                 startFileMonitoring(tabInfo);
 
                 settingsDialog.dispose();
@@ -3176,34 +4432,8 @@ public class SCPLogViewer {
 
         currentTab.showTimestamp = !currentTab.showTimestamp;
 
-        // Clear and reprocess existing content
-        if (currentTab.rawLogContent != null && currentTab.rawLogContent.length() > 0) {
-            currentTab.textArea.setText("");
-            String[] lines = currentTab.rawLogContent.toString().split("\n");
-
-            for (String line : lines) {
-                if (!line.trim().isEmpty()) {
-                    String actualContent;
-                    if (line.matches("\\[\\d{4}-\\d{2}-\\d{2} \\d{2}:\\d{2}:\\d{2}\\].*")) {
-                        actualContent = line.substring(line.indexOf("]") + 1).trim();
-                    } else {
-                        actualContent = line.trim();
-                    }
-
-                    if (currentTab.showTimestamp) {
-                        // Use the original timestamp if available
-                        if (line.matches("\\[\\d{4}-\\d{2}-\\d{2} \\d{2}:\\d{2}:\\d{2}\\].*")) {
-                            appendToLogWithFiltering(currentTab, line, false);
-                        } else {
-                            appendToLogWithFiltering(currentTab, actualContent, false);
-                        }
-                    } else {
-                        // Just show the content without timestamp
-                        appendToLogWithFiltering(currentTab, actualContent, false);
-                    }
-                }
-            }
-        }
+        // Reprocess existing content in the background
+        rerenderFromStore(currentTab);
 
         // Update checkbox state
         Component[] components = ((Container) tabbedPane.getParent()).getComponents();
@@ -3233,34 +4463,70 @@ public class SCPLogViewer {
     /**
      * Handles automatic connection attempts for tabs configured with auto-connect.
      *
-     * For each tab with auto-connect enabled:
-     * 1. Tests SSH connection with 5 second timeout
-     * 2. If successful, starts file monitoring
-     * 3. If failed, updates status with error message
+     * Tabs are grouped by their session pool key, since tabs on the same
+     * host and account share one session anyway. Each group connects on its
+     * own thread of a temporary pool, so the EDT never blocks, startup takes
+     * as long as the slowest host rather than the sum of all hosts, and a
+     * large saved session starts one thread per host rather than per tab.
+     * For each group:
+     * 1. Shows "Connecting..." in the status of its tabs
+     * 2. Opens the pooled SSH session with a 5 second timeout
+     * 3. If successful, starts file monitoring of every tab in the group and
+     * fetches right away over the session that was just verified
+     * 4. If failed, updates the tabs' status with the error message
      *
      * Connection parameters are loaded from each tab's saved configuration.
      * Failed connections are logged but don't prevent other tabs from connecting.
      */
     private static void handleAutoConnect() {
+        Map<String, List<TabInfo>> autoConnectHosts = new LinkedHashMap<>();
         for (TabInfo tab : tabs) {
             if (tab.autoConnect) {
+                autoConnectHosts.computeIfAbsent(SessionPool.key(tab), k -> new ArrayList<>()).add(tab);
+            }
+        }
+        if (autoConnectHosts.isEmpty()) {
+            return;
+        }
+
+        ExecutorService connector = Executors.newFixedThreadPool(autoConnectHosts.size(), r -> {
+            Thread t = new Thread(r, "auto-connect");
+            t.setDaemon(true);
+            return t;
+        });
+        for (List<TabInfo> hostTabs : autoConnectHosts.values()) {
+            for (TabInfo tab : hostTabs) {
+                updateStatus(tab, false, "Connecting...");
+            }
+            TabInfo first = hostTabs.get(0);
+            connector.execute(() -> {
                 try {
-                    // Test connection before starting monitoring
-                    JSch jsch = new JSch();
-                    Session session = jsch.getSession(tab.user, tab.host, tab.port);
-                    session.setPassword(tab.password);
-                    session.setConfig("StrictHostKeyChecking", "no");
-                    session.connect(5000); // 5 second timeout
-                    session.disconnect();
-
-                    startFileMonitoring(tab);
+                    // Connects once and leaves the session pooled for the first fetches
+                    Session session = sessionPool.acquire(first.user, first.host, first.port, first.password,
+                            AUTO_CONNECT_TIMEOUT_MS);
+                    sessionPool.release(session);
+                    for (TabInfo tab : hostTabs) {
+                        updateStatus(tab, true, "Connected");
+                    }
+
+                    SwingUtilities.invokeLater(() -> {
+                        for (TabInfo tab : hostTabs) {
+                            startFileMonitoring(tab);
+                            if (tab.sourceMode != SourceMode.STREAM) {
+                                pollScheduler.pollNow(tab);
+                            }
+                        }
+                    });
                 } catch (JSchException e) {
                     // Connection failed, update status and log error
-                    updateStatus(tab, false, "Connection failed: " + e.getMessage());
+                    for (TabInfo tab : hostTabs) {
+                        updateStatus(tab, false, "Connection failed: " + e.getMessage());
+                    }
                     e.printStackTrace();
                 }
-            }
+            });
         }
+        connector.shutdown();
     }
 
     /**
@@ -3268,18 +4534,32 @@ public class SCPLogViewer {
      *
      * Adds a WindowListener that performs cleanup tasks when the window is closing:
      * 1. Saves current configuration state to persistent storage
-     * 2. Interrupts and cleans up all tab monitoring threads
-     * 3. Exits the application
+     * 2. Stops all tab monitoring threads and streams
+     * 3. Disconnects all pooled SSH sessions
+     * 4. Exits the application
      *
      * The cleanup ensures:
      * - User settings and preferences are preserved
      * - All background monitoring threads are properly terminated
      * - Application exits cleanly without resource leaks
      *
+     * Minimizing the window also drops polling to the low-power interval
+     * until it is restored.
+     *
      * @param frame The main JFrame to add the window listener to
      */
     private static void setupWindowListener(JFrame frame) {
         frame.addWindowListener(new java.awt.event.WindowAdapter() {
+            @Override
+            public void windowIconified(java.awt.event.WindowEvent windowEvent) {
+                pollScheduler.setMinimized(true);
+            }
+
+            @Override
+            public void windowDeiconified(java.awt.event.WindowEvent windowEvent) {
+                pollScheduler.setMinimized(false);
+            }
+
             @Override
             public void windowClosing(java.awt.event.WindowEvent windowEvent) {
                 try {
@@ -3288,12 +4568,12 @@ public class SCPLogViewer {
                     e.printStackTrace();
                 }
 
-                // Clean up monitoring threads
+                // Clean up polling, streams and sessions
                 for (TabInfo tab : tabs) {
-                    if (tab.monitoringThread != null) {
-                        tab.monitoringThread.interrupt();
-                    }
+                    stopFileMonitoring(tab);
                 }
+                pollScheduler.shutdown();
+                sessionPool.shutdown();
                 System.exit(0);
             }
         });
@@ -0,0 +1,314 @@
+package com.outputfetcher;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import com.jcraft.jsch.JSch;
+import com.jcraft.jsch.JSchException;
+import com.jcraft.jsch.Session;
+
+/**
+ * Pool of long-lived, authenticated SSH sessions shared by all tabs.
+ *
+ * Sessions are keyed by (user, host, port, password), so every TabInfo
+ * pointing at the same machine with the same credentials reuses a single
+ * handshake. The password is part of the key, as a SHA-256 digest, so a tab
+ * with a different or stale password gets a session of its own instead of
+ * replacing the one other tabs are using. Callers check a session out with
+ * {@link #acquire(TabInfo)}, open their channels on it and hand it back with
+ * {@link #release(Session)}. A steady-state poll therefore only costs a
+ * channel open.
+ *
+ * The pool:
+ * - Reconnects transparently when a pooled session has dropped
+ * - Sends SSH keepalives so dead peers are detected and idle paths stay open
+ * - Evicts sessions that nobody has checked out for IDLE_TIMEOUT_MS
+ * - Connects outside the entry's monitor, so a slow or unreachable host only
+ * holds up the callers that need that host, and {@link #isConnecting} lets
+ * schedulers put off work for a host whose connect is still pending
+ */
+public class SessionPool {
+    /** Timeout for the TCP connect and SSH handshake */
+    private static final int CONNECT_TIMEOUT_MS = 30000;
+
+    /** Interval between SSH keepalive messages on idle sessions */
+    private static final int KEEPALIVE_INTERVAL_MS = 15000;
+
+    /** Number of unanswered keepalives before JSch drops the session */
+    private static final int KEEPALIVE_MAX_MISSED = 3;
+
+    /** Sessions unused for this long are disconnected and removed */
+    private static final long IDLE_TIMEOUT_MS = 5 * 60 * 1000L;
+
+    /** How often the evictor scans the pool */
+    private static final long EVICTION_PERIOD_MS = 30 * 1000L;
+
+    /** Pooled sessions keyed by user@host:port#password-digest */
+    private final Map<String, PooledSession> sessions = new ConcurrentHashMap<>();
+
+    /** Background task that disconnects idle or dead sessions */
+    private final ScheduledExecutorService evictor;
+
+    /**
+     * A pooled session together with its checkout bookkeeping. All mutable
+     * fields are guarded by the PooledSession's monitor, which is not held
+     * while connecting; connecting marks a connect in progress and waiters
+     * are notified when it ends.
+     */
+    private static class PooledSession {
+        Session session;
+        int checkedOut;
+        long lastUsed = System.currentTimeMillis();
+        boolean evicted;
+        boolean connecting;
+    }
+
+    /**
+     * Creates an empty pool and starts the idle-session evictor.
+     */
+    public SessionPool() {
+        evictor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "ssh-session-evictor");
+            t.setDaemon(true);
+            return t;
+        });
+        evictor.scheduleWithFixedDelay(this::evictIdle, EVICTION_PERIOD_MS, EVICTION_PERIOD_MS,
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Checks out a connected session for the tab's user, host and port.
+     *
+     * @param tabInfo The tab whose connection details should be used
+     * @return A connected session; must be handed back via {@link #release}
+     * @throws JSchException If a new session could not be established
+     */
+    public Session acquire(TabInfo tabInfo) throws JSchException {
+        return acquire(tabInfo.user, tabInfo.host, tabInfo.port, tabInfo.password, CONNECT_TIMEOUT_MS);
+    }
+
+    /**
+     * Checks out a connected session, reusing a pooled one when possible.
+     *
+     * If the pooled session has dropped, it is replaced by a freshly
+     * authenticated session. Concurrent
+     * callers for the same key wait for a single handshake instead of racing;
+     * the handshake runs without holding the entry's monitor, so releasing
+     * and evicting never wait for it.
+     *
+     * @param user           The SSH username
+     * @param host           The SSH host
+     * @param port           The SSH port
+     * @param password       The SSH password
+     * @param connectTimeout Timeout in milliseconds for a new connection
+     * @return A connected session; must be handed back via {@link #release}
+     * @throws JSchException If a new session could not be established
+     */
+    public Session acquire(String user, String host, int port, String password, int connectTimeout)
+            throws JSchException {
+        String pass = password != null ? password : "";
+        String key = key(user, host, port, pass);
+        while (true) {
+            PooledSession pooled = sessions.computeIfAbsent(key, k -> new PooledSession());
+            synchronized (pooled) {
+                try {
+                    while (pooled.connecting) {
+                        pooled.wait();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new JSchException("Interrupted while waiting for a connection to " + host);
+                }
+                if (pooled.evicted) {
+                    continue; // Lost a race with the evictor, pick up the replacement entry
+                }
+                if (pooled.session != null && pooled.session.isConnected()) {
+                    pooled.checkedOut++;
+                    pooled.lastUsed = System.currentTimeMillis();
+                    return pooled.session;
+                }
+                if (pooled.session != null) {
+                    pooled.session.disconnect();
+                    pooled.session = null;
+                }
+                pooled.connecting = true;
+            }
+
+            Session session = null;
+            try {
+                session = connect(user, host, port, pass, connectTimeout);
+            } finally {
+                synchronized (pooled) {
+                    pooled.connecting = false;
+                    if (session != null) {
+                        pooled.session = session;
+                        // Holders of the replaced session release it as a no-op
+                        pooled.checkedOut = 1;
+                        pooled.lastUsed = System.currentTimeMillis();
+                    }
+                    pooled.notifyAll();
+                }
+            }
+            return session;
+        }
+    }
+
+    /**
+     * Checks whether a connect to the tab's host is in progress, so work that
+     * needs the host can be put off instead of waiting for it.
+     *
+     * @param tabInfo The tab whose connection details should be checked
+     * @return true if a session for the tab is being connected right now
+     */
+    public boolean isConnecting(TabInfo tabInfo) {
+        PooledSession pooled = sessions.get(key(tabInfo));
+        if (pooled == null) {
+            return false;
+        }
+        synchronized (pooled) {
+            return pooled.connecting;
+        }
+    }
+
+    /**
+     * Hands a session back to the pool after use. The session stays connected
+     * for the next caller.
+     *
+     * @param session The session previously returned by {@link #acquire}
+     */
+    public void release(Session session) {
+        if (session == null) {
+            return;
+        }
+        for (PooledSession pooled : sessions.values()) {
+            synchronized (pooled) {
+                if (pooled.session == session) {
+                    pooled.checkedOut = Math.max(0, pooled.checkedOut - 1);
+                    pooled.lastUsed = System.currentTimeMillis();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Hands back a session after a failure during use. If the session itself
+     * has dropped it is removed from the pool, so the next {@link #acquire}
+     * reconnects instead of handing out the broken session again. Failures of
+     * a single channel on a live session leave it pooled for the other tabs.
+     *
+     * @param session The session that was in use when the failure occurred
+     */
+    public void invalidate(Session session) {
+        if (session == null) {
+            return;
+        }
+        if (session.isConnected()) {
+            release(session);
+            return;
+        }
+        for (PooledSession pooled : sessions.values()) {
+            synchronized (pooled) {
+                if (pooled.session == session) {
+                    pooled.checkedOut = 0;
+                    pooled.session = null;
+                    break;
+                }
+            }
+        }
+        session.disconnect();
+    }
+
+    /**
+     * Disconnects every pooled session and stops the evictor.
+     */
+    public void shutdown() {
+        evictor.shutdownNow();
+        for (PooledSession pooled : sessions.values()) {
+            synchronized (pooled) {
+                if (pooled.session != null) {
+                    pooled.session.disconnect();
+                    pooled.session = null;
+                }
+            }
+        }
+        sessions.clear();
+    }
+
+    /**
+     * Disconnects sessions that are idle past IDLE_TIMEOUT_MS or already dead.
+     * Sessions that are currently checked out are never evicted.
+     */
+    private void evictIdle() {
+        long now = System.currentTimeMillis();
+        Iterator<PooledSession> it = sessions.values().iterator();
+        while (it.hasNext()) {
+            PooledSession pooled = it.next();
+            synchronized (pooled) {
+                if (pooled.checkedOut > 0 || pooled.connecting) {
+                    continue;
+                }
+                boolean dead = pooled.session == null || !pooled.session.isConnected();
+                if (dead || now - pooled.lastUsed > IDLE_TIMEOUT_MS) {
+                    if (pooled.session != null) {
+                        pooled.session.disconnect();
+                        pooled.session = null;
+                    }
+                    pooled.evicted = true;
+                    it.remove();
+                }
+            }
+        }
+    }
+
+    /**
+     * Opens and authenticates a new SSH session with keepalives enabled.
+     */
+    private static Session connect(String user, String host, int port, String password, int connectTimeout)
+            throws JSchException {
+        JSch jsch = new JSch();
+        Session session = jsch.getSession(user, host, port);
+        session.setPassword(password);
+
+        java.util.Properties config = new java.util.Properties();
+        config.put("StrictHostKeyChecking", "no");
+        session.setConfig(config);
+        session.setServerAliveInterval(KEEPALIVE_INTERVAL_MS);
+        session.setServerAliveCountMax(KEEPALIVE_MAX_MISSED);
+        session.connect(connectTimeout);
+        return session;
+    }
+
+    /**
+     * Returns the key of the pooled session a tab uses. Tabs with the same key
+     * share one session and one handshake.
+     *
+     * @param tabInfo The tab whose connection details should be used
+     * @return The tab's pool key
+     */
+    static String key(TabInfo tabInfo) {
+        return key(tabInfo.user, tabInfo.host, tabInfo.port, tabInfo.password != null ? tabInfo.password : "");
+    }
+
+    /**
+     * Builds the pool key for a session. The password enters only as a
+     * digest, so it is not kept in the key itself.
+     */
+    private static String key(String user, String host, int port, String password) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(password.getBytes(StandardCharsets.UTF_8));
+            return user + "@" + host + ":" + port + "#" + HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform provides SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.outputfetcher;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import com.jcraft.jsch.ChannelSftp;
+import com.jcraft.jsch.JSchException;
+import com.jcraft.jsch.Session;
+import com.jcraft.jsch.SftpATTRS;
+import com.jcraft.jsch.SftpException;
+
+/**
+ * Reads a remote log file over SFTP using a stat and a ranged read.
+ *
+ * Each poll stats the file for its size and modification time and, if it
+ * grew, reads only the requested byte range starting at the given offset. No shell
+ * or helper processes are spawned on the remote host, which matters on small
+ * embedded boxes where fork/exec is expensive, and it works for accounts
+ * with restricted shells as long as the SFTP subsystem is enabled.
+ *
+ * The first bytes of the file, used as a fingerprint for rotation detection,
+ * cost an extra open and read, so they are only fetched when they are needed:
+ * taken from the payload when it starts at offset 0, and read separately
+ * only for a path not fetched last time or a file that shrank since. A poll
+ * of an unchanged or growing file is a stat and at most one ranged read.
+ *
+ * The SFTP channel is kept open between polls and reopened when the pooled
+ * session it belongs to changes or drops. One instance serves one tab.
+ */
+public class SftpLogSource implements LogSource {
+    private ChannelSftp channel;
+    private Session channelSession;
+    /** Path and size seen by the previous fetch */
+    private String lastFile;
+    private long lastSize;
+
+    @Override
+    public synchronized void fetchRange(Session session, String logFile, long offset, long length,
+            FetchResult result) throws JSchException, IOException {
+        result.clear();
+        ChannelSftp sftp = channelFor(session);
+
+        try {
+            // stat rather than lstat so a symlinked log reports the target's size
+            SftpATTRS attrs = sftp.stat(logFile);
+            if (!attrs.isReg()) {
+                return;
+            }
+            result.exists = true;
+            result.size = attrs.getSize();
+            result.mtime = attrs.getMTime() & 0xffffffffL;
+
+            result.offset = offset < 0 ? Math.max(0, result.size + offset) : offset;
+            // A file that only grew keeps the head recorded from it before
+            boolean sameFile = logFile.equals(lastFile) && result.size >= lastSize;
+            lastFile = logFile;
+            lastSize = result.size;
+
+            long end = length < 0 ? result.size : Math.min(result.size, result.offset + length);
+            if (end > result.offset) {
+                try (InputStream in = sftp.get(logFile, null, result.offset)) {
+                    result.readPayload(in, end - result.offset);
+                }
+            }
+
+            if (result.offset == 0 && result.length > 0) {
+                result.headLength = Math.min(result.length, FetchResult.HEAD_BYTES);
+                System.arraycopy(result.data, 0, result.head, 0, result.headLength);
+            } else if (!sameFile && result.size > 0) {
+                try (InputStream in = sftp.get(logFile, null, 0L)) {
+                    result.readHead(in);
+                }
+            }
+        } catch (SftpException e) {
+            if (e.id == ChannelSftp.SSH_FX_NO_SUCH_FILE) {
+                result.exists = false;
+                return;
+            }
+            if (e.id == ChannelSftp.SSH_FX_NO_CONNECTION || e.id == ChannelSftp.SSH_FX_CONNECTION_LOST) {
+                close();
+            }
+            throw new IOException("SFTP error: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (channel != null) {
+            channel.disconnect();
+            channel = null;
+            channelSession = null;
+        }
+    }
+
+    /**
+     * Returns the open SFTP channel for the session, opening a new one if the
+     * session changed or the old channel was closed.
+     */
+    private ChannelSftp channelFor(Session session) throws JSchException {
+        if (channel != null && channelSession == session && channel.isConnected()) {
+            return channel;
+        }
+        close();
+        ChannelSftp sftp = (ChannelSftp) session.openChannel("sftp");
+        sftp.connect();
+        channel = sftp;
+        channelSession = session;
+        return sftp;
+    }
+}
@@ -0,0 +1,43 @@
+package com.outputfetcher;
+
+/**
+ * How a tab obtains new content from its remote log file.
+ *
+ * - POLL: periodically runs one shell command that reports the file size and
+ * returns the new bytes
+ * - SFTP: periodically stats the file over SFTP and reads only the new byte
+ * range, without spawning remote processes
+ * - STREAM: keeps a single `tail -F` channel open and receives bytes as they
+ * are written
+ */
+public enum SourceMode {
+    POLL("Poll"),
+    SFTP("Poll (SFTP)"),
+    STREAM("Stream (tail -F)");
+
+    private final String label;
+
+    SourceMode(String label) {
+        this.label = label;
+    }
+
+    /**
+     * Parses a persisted mode name, falling back to POLL for unknown values.
+     *
+     * @param name The name stored in the configuration file
+     * @return The matching mode, or POLL if none matches
+     */
+    public static SourceMode fromName(String name) {
+        for (SourceMode mode : values()) {
+            if (mode.name().equalsIgnoreCase(name)) {
+                return mode;
+            }
+        }
+        return POLL;
+    }
+
+    @Override
+    public String toString() {
+        return label;
+    }
+}
@@ -3,10 +3,9 @@ package com.outputfetcher;
 import java.awt.Color;
 import java.awt.Font;
 import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.HashSet;
-import java.util.Set;
 
 import javax.swing.JLabel;
+import javax.swing.JScrollPane;
 import javax.swing.JTextArea;
 
 /**
@@ -16,7 +15,8 @@ import javax.swing.JTextArea;
  * Each TabInfo instance maintains:
  * - SSH connection details (host, port, credentials)
  * - UI components (text area, status labels)
- * - Content tracking (raw log, seen entries)
+ * - Content tracking (line store, seen entries)
+ * - Reusable fetch and decoding buffers
  * - Display preferences (colors, font, filters)
  * - Connection state
  */
@@ -27,14 +27,71 @@ public class TabInfo {
     public String password;
     public String logFile;
     public String tabName;
-    public JTextArea textArea = new JTextArea();
+    public JTextArea textArea = new JTextArea(new LogDocument());
+    /** Store ids of the lines shown in textArea, one per document line */
+    public RowIds rowIds = new RowIds();
     public JLabel statusLabel;
     public JLabel lastUpdateLabel;
-    public Thread monitoringThread;
-    public long lastModified = 0;
-    public StringBuilder rawLogContent;
-    public Set<String> seenLogContents = new HashSet<>();
+    public TailFollower tailFollower;
+    public SourceMode sourceMode = SourceMode.POLL;
+    public SftpLogSource sftpLogSource;
+    /** Bounds in milliseconds for the adaptive poll interval */
+    public long pollMinInterval = 500;
+    public long pollMaxInterval = 30000;
+    /** Fastest interval while the tab is not the selected one */
+    public long pollBackgroundInterval = 10000;
+    /**
+     * Read position in the log file. Volatile because a streaming tab advances
+     * it on the JSch session thread while pollers, backfill and the EDT read it.
+     */
+    public volatile long lastModified = 0;
+    /** File offset of the oldest loaded byte; older content can be backfilled */
+    public volatile long loadedFrom = 0;
+    public boolean backfilling = false;
+    /** Identity of the file being read, used to detect rotation and truncation */
+    public volatile long fileInode = 0;
+    public byte[] headFingerprint = new byte[FetchResult.HEAD_BYTES];
+    public int headFingerprintLength = 0;
+    /** Whether to read the rest of the rotated ".1" file after a rotation */
+    public boolean drainRotated = false;
+    /** Limits on how much received content is kept for re-rendering and export */
+    public int scrollbackLines = 100000;
+    public long scrollbackBytes = 64L * 1024 * 1024;
+    public LineStore lineStore = new LineStore(scrollbackLines, scrollbackBytes);
+    /** Whether the tab shows its line store through a LogViewport instead of the text area */
+    public boolean virtualView = false;
+    public LogViewport logViewport;
+    public JScrollPane scrollPane;
+    /**
+     * Whether new lines scroll the view to the end. Cleared while the user
+     * reads further up; lines arriving meanwhile are counted by newLinesLabel.
+     */
+    public boolean followTail = true;
+    /** Whether the tab is the selected one in the tab pane */
+    public boolean visible = true;
+    /**
+     * While the tab is not following or not visible, new lines are kept in the
+     * line store only; heldFrom is the store's addedCount() when that began.
+     */
+    public long heldFrom = 0;
+    public int lastScrollValue = 0;
+    public JLabel newLinesLabel;
     public boolean filterDuplicates = false;
+    /** Whether consecutive identical lines are collapsed into one with a counter */
+    public boolean collapseRepeats = false;
+    public RepeatCollapser repeatCollapser = new RepeatCollapser();
+    /**
+     * Background re-render state; a newer generation supersedes a running one.
+     * Volatile because the re-render worker polls it to notice it was superseded.
+     */
+    public volatile long renderGeneration = 0;
+    public boolean rerendering = false;
+    /** Memory-bounded record of shown lines, rebuilt when its settings change */
+    public DuplicateFilterStrategy dedupStrategy = DuplicateFilterStrategy.EXACT_LRU;
+    public long dedupMemoryKb = 16384;
+    public long dedupWindowSeconds = 300;
+    public double dedupFalsePositiveRate = 0.001;
+    public DuplicateFilter duplicateFilter = createDuplicateFilter();
     public boolean wordWrap = false;
     public boolean showTimestamp = true;
     public AtomicBoolean isConnected = new AtomicBoolean(false);
@@ -43,12 +100,23 @@ public class TabInfo {
     public Font currentFont = new Font("Monospaced", Font.PLAIN, 12);
     public boolean autoConnect = false;
 
+    /** Lines waiting to be appended on the EDT, and batching settings */
+    public IngestQueue ingestQueue = new IngestQueue();
+    public int maxBatchLines = 5000;
+    public long ingestLagMillis = 0;
+
+    /** Reusable fetch buffer and line decoding state for this tab's polls */
+    public FetchResult fetchResult = new FetchResult();
+    public LineAssembler lineAssembler = new LineAssembler();
+    /** How long a trailing line without a newline waits before it is shown anyway */
+    public long partialLineFlushMs = 5000;
+
     /**
      * Creates a new TabInfo instance with default settings.
      * Initializes UI components and sets default values for connection and display properties.
      */
     TabInfo() {
-        textArea = new JTextArea();
+        textArea = new JTextArea(new LogDocument());
         lastModified = 0;
         isConnected = new AtomicBoolean(false);
         textColor = Color.BLACK;
@@ -58,4 +126,14 @@ public class TabInfo {
         port = 22;
         autoConnect = false;
     }
+
+    /**
+     * Creates an empty duplicate filter from this tab's dedup settings.
+     *
+     * @return A new filter; assign it to duplicateFilter to apply the settings
+     */
+    public DuplicateFilter createDuplicateFilter() {
+        return DuplicateFilter.create(dedupStrategy, dedupMemoryKb * 1024, dedupWindowSeconds * 1000,
+                dedupFalsePositiveRate);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,370 @@
+package com.outputfetcher;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+import com.jcraft.jsch.ChannelExec;
+import com.jcraft.jsch.JSchException;
+import com.jcraft.jsch.Session;
+
+/**
+ * Streams a remote log file over one long-lived `tail -F` exec channel.
+ *
+ * Instead of polling, the follower starts `tail -F -c +<offset>` on a pooled
+ * session and lets JSch push the output straight into a line-splitting
+ * OutputStream from its session thread. No thread is parked per tab, so an
+ * idle file costs nothing and new lines arrive within one network round trip.
+ *
+ * On first connect only the last LogSource.INITIAL_LOAD_BYTES of the file are
+ * streamed, starting at the first complete line; older content is left for
+ * on-demand backfill. The remote command reports the offset it starts at on
+ * a header line before the data.
+ *
+ * The byte offset just past the last complete line received is kept in
+ * TabInfo.lastModified. When the channel or session drops, the follower
+ * reconnects with backoff and resumes from that offset, so no bytes are lost
+ * or repeated.
+ *
+ * The offset only holds for the file it was counted in. tail's own notices
+ * are merged into the stream, and when tail reports that the file was
+ * truncated or replaced the offset restarts at 0 with the new content. As a
+ * safety net for rotations missed while disconnected, a reconnect compares
+ * the file's size and inode with the ones recorded and starts the new file
+ * from its beginning if it is not the file the offset belongs to, like a
+ * poll does.
+ *
+ * Connects block for up to the session handshake timeout, so they run on a
+ * small shared pool without holding the follower's lock; stopping a follower
+ * never waits for a pending connect. While another connect to the same host
+ * is in progress, the attempt is put off instead of tying up a pool thread.
+ */
+public class TailFollower {
+    /** First reconnect delay after the channel drops */
+    private static final long RECONNECT_MIN_DELAY_MS = 1000;
+
+    /** Upper bound for the exponential reconnect backoff */
+    private static final long RECONNECT_MAX_DELAY_MS = 30000;
+
+    /** Delay before retrying a connect while another one to the same host is pending */
+    private static final long HOST_CONNECTING_RETRY_MS = 1000;
+
+    /** Threads shared by all followers for their blocking connects */
+    private static final int CONNECT_THREADS = 4;
+
+    /** Start of the notices tail writes about the files it follows */
+    private static final String TAIL_NOTICE_PREFIX = "tail: ";
+
+    /** Shared pool for connect and reconnect attempts of all followers */
+    private static final ScheduledThreadPoolExecutor CONNECTOR = createConnector();
+
+    private final TabInfo tabInfo;
+    private final SessionPool sessionPool;
+    private final Consumer<String> lineConsumer;
+    private final BiConsumer<Boolean, String> statusConsumer;
+
+    private Session session;
+    private ChannelExec channel;
+    private long reconnectDelay = RECONNECT_MIN_DELAY_MS;
+    private volatile boolean stopped;
+
+    /**
+     * Creates a follower for a tab. Nothing is opened until {@link #start()}.
+     *
+     * @param tabInfo        The tab whose log file should be followed
+     * @param sessionPool    Pool that provides the SSH session
+     * @param lineConsumer   Receives every complete line, without its newline
+     * @param statusConsumer Receives connection state changes and a message
+     */
+    public TailFollower(TabInfo tabInfo, SessionPool sessionPool, Consumer<String> lineConsumer,
+            BiConsumer<Boolean, String> statusConsumer) {
+        this.tabInfo = tabInfo;
+        this.sessionPool = sessionPool;
+        this.lineConsumer = lineConsumer;
+        this.statusConsumer = statusConsumer;
+    }
+
+    /**
+     * Opens the streaming channel in the background.
+     */
+    public void start() {
+        CONNECTOR.execute(this::connect);
+    }
+
+    /**
+     * Closes the channel and returns the session to the pool. The follower
+     * does not reconnect after being stopped. A connect still in progress is
+     * not waited for; it closes what it opened once it sees the flag.
+     */
+    public synchronized void stop() {
+        stopped = true;
+        closeChannel();
+    }
+
+    private static ScheduledThreadPoolExecutor createConnector() {
+        AtomicInteger threadCount = new AtomicInteger();
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(CONNECT_THREADS, r -> {
+            Thread t = new Thread(r, "tail-follower-connect-" + threadCount.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        executor.setRemoveOnCancelPolicy(true);
+        return executor;
+    }
+
+    /**
+     * Opens a `tail -F` channel starting at the current byte offset. The
+     * session handshake and the channel connect run without the follower's
+     * lock, which is taken only to publish the channel. On failure a
+     * reconnect is scheduled with exponential backoff.
+     */
+    private void connect() {
+        if (stopped) {
+            return;
+        }
+        if (sessionPool.isConnecting(tabInfo)) {
+            CONNECTOR.schedule(this::connect,
+                    HOST_CONNECTING_RETRY_MS + ThreadLocalRandom.current().nextLong(HOST_CONNECTING_RETRY_MS),
+                    TimeUnit.MILLISECONDS);
+            return;
+        }
+        Session acquired = null;
+        ChannelExec opened = null;
+        LineSplittingStream stream = null;
+        try {
+            acquired = sessionPool.acquire(tabInfo);
+            opened = (ChannelExec) acquired.openChannel("exec");
+            opened.setCommand(buildCommand(tabInfo.logFile, tabInfo.lastModified, tabInfo.fileInode));
+            opened.setInputStream(null);
+            stream = new LineSplittingStream(opened);
+            opened.setOutputStream(stream);
+            opened.connect();
+        } catch (JSchException e) {
+            if (opened != null) {
+                opened.disconnect();
+            }
+            sessionPool.invalidate(acquired);
+            synchronized (this) {
+                if (!stopped) {
+                    statusConsumer.accept(false, "Connection error: " + e.getMessage());
+                    scheduleReconnect();
+                }
+            }
+            return;
+        }
+
+        synchronized (this) {
+            if (!stopped) {
+                session = acquired;
+                channel = opened;
+                reconnectDelay = RECONNECT_MIN_DELAY_MS;
+                statusConsumer.accept(true, "Streaming");
+                if (stream.closed) {
+                    // Closed before it was published, so onChannelClosed ignored it
+                    onChannelClosed(opened);
+                }
+                return;
+            }
+        }
+        opened.disconnect();
+        sessionPool.release(acquired);
+    }
+
+    /**
+     * Builds the streaming command. From offset 0 the start is moved to the
+     * last INITIAL_LOAD_BYTES of the file. A resumed offset is reset to 0 if
+     * the file is now smaller than it, missing, or has a different inode
+     * than the one it was counted in. The resolved offset and the file's
+     * inode are echoed on a header line before tail starts, and tail's
+     * notices are sent along with the data.
+     */
+    private static String buildCommand(String logFile, long offset, long inode) {
+        long window = LogSource.INITIAL_LOAD_BYTES;
+        return "f=" + logFile + "; o=" + offset + "; i=" + inode + "; "
+                + "set -- $(stat -L -c '%s %i' \"$f\" 2>/dev/null || echo 0 0); "
+                + "if [ \"$o\" -eq 0 ]; then [ \"$1\" -gt " + window + " ] && o=$(($1 - " + window + ")); "
+                + "elif [ \"$1\" -lt \"$o\" ] || { [ \"$i\" -ne 0 ] && [ \"$2\" -ne 0 ] && [ \"$2\" -ne \"$i\" ]; }; "
+                + "then o=0; fi; "
+                + "echo \"$o $2\"; exec tail -F -c +$((o + 1)) \"$f\" 2>&1";
+    }
+
+    /**
+     * Called when the channel's output stream is closed by JSch, which
+     * happens on remote EOF, channel close or session loss.
+     */
+    private synchronized void onChannelClosed(ChannelExec closed) {
+        if (stopped || closed != channel) {
+            return;
+        }
+        closeChannel();
+        statusConsumer.accept(false, "Stream closed, reconnecting");
+        scheduleReconnect();
+    }
+
+    /** Must be called holding the follower's lock */
+    private void scheduleReconnect() {
+        if (stopped) {
+            return;
+        }
+        long delay = reconnectDelay;
+        reconnectDelay = Math.min(reconnectDelay * 2, RECONNECT_MAX_DELAY_MS);
+        CONNECTOR.schedule(this::connect, delay, TimeUnit.MILLISECONDS);
+    }
+
+    private void closeChannel() {
+        if (channel != null) {
+            channel.disconnect();
+            channel = null;
+        }
+        if (session != null) {
+            sessionPool.release(session);
+            session = null;
+        }
+    }
+
+    /**
+     * Receives raw channel bytes and emits complete lines, advancing the tab's
+     * byte offset past each one. Splitting on the '\n' byte is safe for UTF-8
+     * because that byte never occurs inside a multi-byte sequence, so
+     * characters cut at a packet boundary are reassembled before decoding.
+     *
+     * The first line is the start offset and inode echoed by the command.
+     * When the stream starts inside the file, the partial line it begins with
+     * is skipped and the tab's loadedFrom is set past it. Lines that are
+     * tail's notices about the file are not log content: they never advance
+     * the offset, and one saying the file was truncated or replaced restarts
+     * it at 0.
+     *
+     * "Updated" is reported once, for the first lines after a connect or a
+     * rotation notice, rather than for every packet; the time of the last
+     * update is refreshed as the lines are shown.
+     */
+    private class LineSplittingStream extends OutputStream {
+        private final ChannelExec owner;
+        private final ByteArrayOutputStream pending = new ByteArrayOutputStream();
+        private volatile boolean closed;
+        private boolean headerPending = true;
+        private boolean skipPartialLine;
+        private boolean updateReported;
+
+        LineSplittingStream(ChannelExec owner) {
+            this.owner = owner;
+        }
+
+        @Override
+        public void write(int b) {
+            write(new byte[] { (byte) b }, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            if (stopped) {
+                return;
+            }
+
+            int lineStart = off;
+            boolean emitted = false;
+            for (int i = off; i < off + len; i++) {
+                if (b[i] == '\n') {
+                    pending.write(b, lineStart, i - lineStart);
+                    if (headerPending) {
+                        readHeader();
+                    } else if (isTailNotice()) {
+                        readTailNotice();
+                    } else {
+                        // Only complete lines advance the offset, so a reconnect
+                        // re-reads a partially received line instead of cutting it
+                        long offset = tabInfo.lastModified + pending.size() + 1;
+                        tabInfo.lastModified = offset;
+                        if (skipPartialLine) {
+                            skipPartialLine = false;
+                            tabInfo.loadedFrom = offset;
+                        } else {
+                            lineConsumer.accept(new String(pending.toByteArray(), StandardCharsets.UTF_8));
+                            emitted = true;
+                        }
+                    }
+                    pending.reset();
+                    lineStart = i + 1;
+                }
+            }
+            pending.write(b, lineStart, off + len - lineStart);
+
+            if (emitted && !updateReported) {
+                updateReported = true;
+                statusConsumer.accept(true, "Updated");
+            }
+        }
+
+        /**
+         * Takes the start offset and the inode from the header line in
+         * {@link #pending}.
+         */
+        private void readHeader() {
+            headerPending = false;
+            String[] fields = new String(pending.toByteArray(), StandardCharsets.UTF_8).trim().split("\\s+");
+            long start;
+            long inode;
+            try {
+                start = Long.parseLong(fields[0]);
+                inode = fields.length > 1 ? Long.parseLong(fields[1]) : 0;
+            } catch (NumberFormatException e) {
+                return;
+            }
+            if (tabInfo.lastModified == 0 && start > 0) {
+                skipPartialLine = true;
+            } else if (start < tabInfo.lastModified) {
+                // Not the file the offset was counted in; it is read from its start
+                tabInfo.loadedFrom = 0;
+            }
+            tabInfo.lastModified = start;
+            tabInfo.fileInode = inode;
+        }
+
+        /**
+         * @return Whether the line in {@link #pending} is a notice tail wrote
+         *         about the followed file, such as "tail: app.log: file
+         *         truncated"
+         */
+        private boolean isTailNotice() {
+            if (pending.size() < TAIL_NOTICE_PREFIX.length()) {
+                return false;
+            }
+            String line = new String(pending.toByteArray(), StandardCharsets.UTF_8);
+            return line.startsWith(TAIL_NOTICE_PREFIX) && line.contains(tabInfo.logFile);
+        }
+
+        /**
+         * Handles a notice from tail. After a truncation or a replaced file,
+         * tail continues from the start of the new content, so the offset
+         * does too; the inode is unknown until the next reconnect reads it.
+         * Other notices, e.g. that the file became inaccessible, are dropped.
+         */
+        private void readTailNotice() {
+            String line = new String(pending.toByteArray(), StandardCharsets.UTF_8);
+            if (line.contains("truncated") || line.contains("following new file")) {
+                tabInfo.lastModified = 0;
+                tabInfo.loadedFrom = 0;
+                tabInfo.fileInode = 0;
+                skipPartialLine = false;
+                updateReported = false;
+                statusConsumer.accept(true, line.contains("truncated") ? "Log truncated" : "Log rotated");
+            }
+        }
+
+        @Override
+        public void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            onChannelClosed(owner);
+        }
+    }
+}
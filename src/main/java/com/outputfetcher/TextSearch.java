@@ -0,0 +1,189 @@
+package com.outputfetcher;
+
+import java.util.function.BooleanSupplier;
+
+import javax.swing.text.BadLocationException;
+import javax.swing.text.Document;
+import javax.swing.text.Segment;
+
+/**
+ * Finds text in a Document without copying it out.
+ *
+ * The document is read through partial-return Segments, which for
+ * LogDocument and Swing's own documents point straight into their storage,
+ * and the term is compared char by char. Case is ignored the way
+ * String.regionMatches(true, ...) ignores it, so neither the text nor the
+ * term is ever lowercased into a copy. Only a match that straddles two
+ * segments is read again, as a term-sized range.
+ *
+ * Safe to call from a background thread: the document is read under its
+ * read lock, one window of WINDOW_CHARS at a time, so appends on the EDT
+ * wait at most for one window. Text may change between windows, so callers
+ * should check a match with {@link #matchesAt} on the EDT before using it.
+ */
+public final class TextSearch {
+    /** Chars scanned per read lock */
+    private static final int WINDOW_CHARS = 1024 * 1024;
+
+    private TextSearch() {
+    }
+
+    /**
+     * Finds the first occurrence of a term at or after an offset.
+     *
+     * @param doc           The document to search
+     * @param term          The text to find
+     * @param from          Offset to start at
+     * @param caseSensitive Whether case must match
+     * @param cancelled     Checked between windows; a search that is no longer
+     *                      wanted stops early
+     * @return The offset of the match, or -1 if none or cancelled
+     */
+    public static int indexOf(Document doc, String term, int from, boolean caseSensitive,
+            BooleanSupplier cancelled) {
+        int start = Math.max(0, from);
+        while (!cancelled.getAsBoolean()) {
+            int windowStart = start;
+            int[] result = { -1, 0 };
+            doc.render(() -> {
+                int end = (int) Math.min(doc.getLength(), (long) windowStart + WINDOW_CHARS + term.length() - 1);
+                result[0] = scan(doc, term, windowStart, end, caseSensitive, false);
+                result[1] = end;
+            });
+            if (result[0] >= 0 || result[1] - term.length() < windowStart + WINDOW_CHARS - 1) {
+                return result[0];
+            }
+            start = windowStart + WINDOW_CHARS;
+        }
+        return -1;
+    }
+
+    /**
+     * Finds the last occurrence of a term that starts before an offset.
+     *
+     * @param doc           The document to search
+     * @param term          The text to find
+     * @param before        Matches must start before this offset
+     * @param caseSensitive Whether case must match
+     * @param cancelled     Checked between windows; a search that is no longer
+     *                      wanted stops early
+     * @return The offset of the match, or -1 if none or cancelled
+     */
+    public static int lastIndexOf(Document doc, String term, int before, boolean caseSensitive,
+            BooleanSupplier cancelled) {
+        // Windows are scanned from the end back; each one includes the chars
+        // a match starting inside it may need from the next
+        long limit = (long) before + term.length() - 1;
+        int windowStart = Integer.MAX_VALUE;
+        while (windowStart > 0 && !cancelled.getAsBoolean()) {
+            int[] result = { -1, 0 };
+            long windowLimit = limit;
+            doc.render(() -> {
+                int end = (int) Math.min(doc.getLength(), windowLimit);
+                int begin = Math.max(0, end - WINDOW_CHARS);
+                result[0] = begin < end ? scan(doc, term, begin, end, caseSensitive, true) : -1;
+                result[1] = begin;
+            });
+            if (result[0] >= 0) {
+                return result[0];
+            }
+            windowStart = result[1];
+            limit = (long) windowStart + term.length() - 1;
+        }
+        return -1;
+    }
+
+    /**
+     * Checks whether a term occurs at an offset.
+     *
+     * @param doc           The document to check
+     * @param term          The text to look for
+     * @param offset        Where the term should start
+     * @param caseSensitive Whether case must match
+     * @return true if the term is at the offset
+     */
+    public static boolean matchesAt(Document doc, String term, int offset, boolean caseSensitive) {
+        if (offset < 0 || offset + term.length() > doc.getLength()) {
+            return false;
+        }
+        Segment segment = new Segment();
+        try {
+            doc.getText(offset, term.length(), segment);
+        } catch (BadLocationException e) {
+            return false;
+        }
+        for (int i = 0; i < term.length(); i++) {
+            if (!same(segment.array[segment.offset + i], term.charAt(i), caseSensitive)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Scans [from, end) for matches that fit entirely inside it. Must be
+     * called under the document's read lock.
+     *
+     * @return The first match, or the last one if {@code last}; -1 if none
+     */
+    private static int scan(Document doc, String term, int from, int end, boolean caseSensitive, boolean last) {
+        int lastStart = end - term.length();
+        char first = term.charAt(0);
+        Segment segment = new Segment();
+        segment.setPartialReturn(true);
+        int found = -1;
+        int position = from;
+        try {
+            while (position <= lastStart) {
+                doc.getText(position, end - position, segment);
+                char[] chars = segment.array;
+                int base = segment.offset - position;
+                int segmentEnd = position + segment.count;
+                int candidateEnd = Math.min(segmentEnd - 1, lastStart);
+                for (int at = position; at <= candidateEnd; at++) {
+                    if (!same(chars[base + at], first, caseSensitive)) {
+                        continue;
+                    }
+                    boolean match;
+                    if (at + term.length() <= segmentEnd) {
+                        match = true;
+                        for (int i = 1; i < term.length(); i++) {
+                            if (!same(chars[base + at + i], term.charAt(i), caseSensitive)) {
+                                match = false;
+                                break;
+                            }
+                        }
+                    } else {
+                        // Straddles the next segment; read just this range
+                        match = matchesAt(doc, term, at, caseSensitive);
+                    }
+                    if (match) {
+                        if (!last) {
+                            return at;
+                        }
+                        found = at;
+                    }
+                }
+                position = segmentEnd;
+            }
+        } catch (BadLocationException e) {
+            e.printStackTrace();
+        }
+        return found;
+    }
+
+    /**
+     * Compares two chars the way String.regionMatches does.
+     */
+    static boolean same(char a, char b, boolean caseSensitive) {
+        if (a == b) {
+            return true;
+        }
+        if (caseSensitive) {
+            return false;
+        }
+        char upperA = Character.toUpperCase(a);
+        char upperB = Character.toUpperCase(b);
+        return upperA == upperB || Character.toLowerCase(upperA) == Character.toLowerCase(upperB);
+    }
+}
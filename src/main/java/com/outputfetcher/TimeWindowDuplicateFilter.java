@@ -0,0 +1,59 @@
+package com.outputfetcher;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Duplicate filter that hides a line only if it was last seen within a time
+ * window. Lines are kept in order of when they were last seen, so expired
+ * ones are dropped from the head in O(1) each. The memory budget caps the
+ * window for very busy logs.
+ */
+public class TimeWindowDuplicateFilter implements DuplicateFilter {
+    /** Extra bytes per entry for the boxed last-seen time */
+    private static final long TIME_BYTES = 16;
+
+    private final long memoryBytes;
+    private final long windowMs;
+    private final LinkedHashMap<String, Long> lastSeen = new LinkedHashMap<>(1024, 0.75f, true);
+    private long usedBytes;
+
+    /**
+     * @param memoryBytes Memory budget for the kept lines
+     * @param windowMs    How long after its last occurrence a line counts as
+     *                    a duplicate
+     */
+    public TimeWindowDuplicateFilter(long memoryBytes, long windowMs) {
+        this.memoryBytes = memoryBytes;
+        this.windowMs = windowMs;
+    }
+
+    @Override
+    public boolean isDuplicate(String content) {
+        long now = System.currentTimeMillis();
+        Iterator<Map.Entry<String, Long>> it = lastSeen.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<String, Long> eldest = it.next();
+            if (now - eldest.getValue() <= windowMs && usedBytes <= memoryBytes) {
+                break;
+            }
+            it.remove();
+            usedBytes -= DuplicateFilter.estimateEntryBytes(eldest.getKey()) + TIME_BYTES;
+        }
+
+        // Access order moves a repeated line to the tail with its new time
+        Long previous = lastSeen.put(content, now);
+        if (previous != null) {
+            return true;
+        }
+        usedBytes += DuplicateFilter.estimateEntryBytes(content) + TIME_BYTES;
+        return false;
+    }
+
+    @Override
+    public void clear() {
+        lastSeen.clear();
+        usedBytes = 0;
+    }
+}
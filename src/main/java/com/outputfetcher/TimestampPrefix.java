@@ -0,0 +1,64 @@
+package com.outputfetcher;
+
+/**
+ * Recognizes the "[yyyy-MM-dd HH:mm:ss]" prefix that the viewer puts in
+ * front of every stored line.
+ *
+ * The check walks the fixed 21-character layout directly instead of running
+ * a regular expression, so it compiles nothing and allocates nothing per
+ * line. It is used wherever lines are tested for or stripped of their
+ * timestamp: appending, duplicate filtering and re-rendering on toggles.
+ */
+public final class TimestampPrefix {
+    /** Length of "[yyyy-MM-dd HH:mm:ss]" */
+    public static final int LENGTH = 21;
+
+    /** Expected separator at each position; '0' marks a digit */
+    private static final String LAYOUT = "[0000-00-00 00:00:00]";
+
+    private TimestampPrefix() {
+    }
+
+    /**
+     * Returns the index just past the timestamp prefix.
+     *
+     * @param line The line to inspect
+     * @return The offset of the content after the closing ']', or -1 if the
+     *         line does not start with a timestamp
+     */
+    public static int contentOffset(CharSequence line) {
+        if (line.length() < LENGTH) {
+            return -1;
+        }
+        for (int i = 0; i < LENGTH; i++) {
+            char expected = LAYOUT.charAt(i);
+            char c = line.charAt(i);
+            if (expected == '0' ? c < '0' || c > '9' : c != expected) {
+                return -1;
+            }
+        }
+        return LENGTH;
+    }
+
+    /**
+     * Checks whether a line starts with a timestamp prefix.
+     *
+     * @param line The line to inspect
+     * @return true if the line starts with "[yyyy-MM-dd HH:mm:ss]"
+     */
+    public static boolean hasPrefix(CharSequence line) {
+        return contentOffset(line) >= 0;
+    }
+
+    /**
+     * Returns the line's content without its timestamp prefix, trimmed.
+     *
+     * @param line The line to strip
+     * @return The trimmed content after the prefix, or the whole line trimmed
+     *         if it has no prefix
+     */
+    public static String strip(String line) {
+        int offset = contentOffset(line);
+        return (offset < 0 ? line : line.substring(offset)).trim();
+    }
+}